@@ -0,0 +1,37 @@
+package study.querydsl.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+import study.querydsl.seed.MemberSeeder;
+import study.querydsl.seed.SeedProperties;
+
+/**
+ * 벤치마크용 스프링 컨텍스트: 인메모리 H2(jmh 프로파일)를 띄우고 memberCount 만큼 회원을 넣는다.
+ */
+public final class BenchmarkContext {
+
+    public static final int TEAM_COUNT = 10;
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * @param args 추가 설정 (예: "--spring.jpa.properties.querydsl.id.allocation_size=1")
+     */
+    public static ConfigurableApplicationContext start(int memberCount, String... args) {
+        String[] allArgs = new String[args.length + 1];
+        allArgs[0] = "--spring.profiles.active=jmh"; // application.yml 의 local 프로파일(InitMember) 대신
+        System.arraycopy(args, 0, allArgs, 1, args.length);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .run(allArgs);
+        if (memberCount == 0) {
+            return context;
+        }
+        SeedProperties properties = new SeedProperties();
+        properties.setTeams(TEAM_COUNT);
+        properties.setMembers(memberCount);
+        context.getBean(MemberSeeder.class).seed(properties);
+        return context;
+    }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.seed.MemberSeeder;
+import study.querydsl.seed.SeedProperties;
+import study.querydsl.seed.SeedReport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 초당 insert 수 비교
+ * allocationSize=1 : 기존 @GeneratedValue 처럼 row 마다 시퀀스 호출
+ * allocationSize=50: pooled 옵티마이저, 시퀀스 호출 1번에 id 50개
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InsertBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"1", "50"})
+    public int allocationSize;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory emf;
+    private MemberSeeder memberSeeder;
+    private SeedProperties properties;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(0,
+                "--spring.jpa.properties.querydsl.id.allocation_size=" + allocationSize,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        emf = context.getBean(EntityManagerFactory.class);
+        memberSeeder = context.getBean(MemberSeeder.class);
+
+        properties = new SeedProperties();
+        properties.setTeams(BenchmarkContext.TEAM_COUNT);
+        properties.setMembers(ROWS);
+        properties.setChunkSize(1_000);
+        properties.setProgressInterval(Long.MAX_VALUE);
+    }
+
+    /**
+     * 이전 iteration 이 넣은 row 를 비운다.
+     * 쌓아 두면 iteration 이 갈수록 테이블/인덱스가 커져 뒤쪽 insert 가 느려 보인다.
+     */
+    @Setup(Level.Iteration)
+    public void deleteSeededData() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public SeedReport insertMembers() {
+        return memberSeeder.seed(properties);
+    }
+}
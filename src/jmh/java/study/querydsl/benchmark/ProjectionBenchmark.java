@@ -0,0 +1,170 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.dto.MemberDTO;
+import study.querydsl.dto.QMemberDTO;
+import study.querydsl.dto.UserDTO;
+import study.querydsl.entity.MemberTeamDto;
+import study.querydsl.entity.QMember;
+import study.querydsl.entity.QMemberTeamDto;
+import study.querydsl.repository.support.LambdaBeanProjection;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * DTO 조회 방식(Projections.bean / fields / constructor, @QueryProjection, LambdaBeanProjection)별 전체 조회 시간.
+ * row 수가 커질수록 DB 왕복보다 row 당 매핑 비용(리플렉션, 할당)이 차지하는 비중이 드러난다.
+ * 매핑 비용만 따로 보려면 ProjectionMappingBenchmark 참고.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager em;
+    private JPAQueryFactory queryFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        queryFactory = new JPAQueryFactory(em);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clear() {
+        em.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        em.close();
+        context.close();
+    }
+
+    // MemberDTO
+
+    @Benchmark
+    public List<MemberDTO> memberBean() {
+        return queryFactory
+                .select(Projections.bean(MemberDTO.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDTO> memberFields() {
+        return queryFactory
+                .select(Projections.fields(MemberDTO.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDTO> memberConstructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberDTO.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDTO> memberQueryProjection() {
+        return queryFactory
+                .select(new QMemberDTO(member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDTO> memberLambdaBean() {
+        return queryFactory
+                .select(LambdaBeanProjection.bean(MemberDTO.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    // UserDTO (별칭 매칭)
+
+    @Benchmark
+    public List<UserDTO> userFields() {
+        return queryFactory
+                .select(Projections.fields(UserDTO.class, member.username.as("name"), member.age.as("userAge")))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<UserDTO> userConstructor() {
+        return queryFactory
+                .select(Projections.constructor(UserDTO.class, member.username, member.age))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<UserDTO> userLambdaBean() {
+        return queryFactory
+                .select(LambdaBeanProjection.bean(UserDTO.class, member.username.as("name"), member.age.as("userAge")))
+                .from(member)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<UserDTO> userFieldsSubquery() {
+        QMember memberSub = new QMember("memberSub");
+        return queryFactory
+                .select(Projections.fields(UserDTO.class,
+                        member.username.as("name"),
+                        ExpressionUtils.as(JPAExpressions
+                                .select(memberSub.age.max())
+                                .from(memberSub), "userAge")))
+                .from(member)
+                .fetch();
+    }
+
+    // MemberTeamDto (기본 생성자가 없어 생성자 방식만 가능)
+
+    @Benchmark
+    public List<MemberTeamDto> memberTeamConstructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberTeamDto.class,
+                        member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> memberTeamQueryProjection() {
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .fetch();
+    }
+}
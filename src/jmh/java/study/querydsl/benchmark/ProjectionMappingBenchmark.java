@@ -0,0 +1,76 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Projections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import study.querydsl.dto.MemberDTO;
+import study.querydsl.dto.QMemberDTO;
+import study.querydsl.dto.UserDTO;
+import study.querydsl.repository.support.LambdaBeanProjection;
+
+import java.util.concurrent.TimeUnit;
+
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * DB 없이 row 하나를 DTO 로 바꾸는 비용(FactoryExpression.newInstance)만 비교.
+ * 할당량은 -prof gc 로 함께 확인.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProjectionMappingBenchmark {
+
+    private final Object[] row = {"member1", 10};
+
+    private final FactoryExpression<MemberDTO> bean = Projections.bean(MemberDTO.class, member.username, member.age);
+    private final FactoryExpression<MemberDTO> fields = Projections.fields(MemberDTO.class, member.username, member.age);
+    private final FactoryExpression<MemberDTO> constructor = Projections.constructor(MemberDTO.class, member.username, member.age);
+    private final FactoryExpression<MemberDTO> queryProjection = new QMemberDTO(member.username, member.age);
+    private final FactoryExpression<MemberDTO> lambdaBean = LambdaBeanProjection.bean(MemberDTO.class, member.username, member.age);
+
+    private final FactoryExpression<UserDTO> userFields = Projections.fields(UserDTO.class,
+            member.username.as("name"), member.age.as("userAge"));
+    private final FactoryExpression<UserDTO> userLambdaBean = LambdaBeanProjection.bean(UserDTO.class,
+            member.username.as("name"), member.age.as("userAge"));
+
+    @Benchmark
+    public MemberDTO bean() {
+        return bean.newInstance(row);
+    }
+
+    @Benchmark
+    public MemberDTO fields() {
+        return fields.newInstance(row);
+    }
+
+    @Benchmark
+    public MemberDTO constructor() {
+        return constructor.newInstance(row);
+    }
+
+    @Benchmark
+    public MemberDTO queryProjection() {
+        return queryProjection.newInstance(row);
+    }
+
+    @Benchmark
+    public MemberDTO lambdaBean() {
+        return lambdaBean.newInstance(row);
+    }
+
+    @Benchmark
+    public UserDTO userFields() {
+        return userFields.newInstance(row);
+    }
+
+    @Benchmark
+    public UserDTO userLambdaBean() {
+        return userLambdaBean.newInstance(row);
+    }
+}
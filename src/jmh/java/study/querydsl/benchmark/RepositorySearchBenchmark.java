@@ -0,0 +1,134 @@
+package study.querydsl.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSearchQueryTemplates;
+import study.querydsl.repository.MemberTestRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검색/페이징 전략별 처리량 비교 (gc 프로파일러로 연산당 할당량도 함께 측정)
+ * 데이터 크기 변경: java -jar build/libs/*-jmh.jar -p memberCount=100000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RepositorySearchBenchmark {
+
+    @Param({"10000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberJpaRepository memberJpaRepository;
+    private MemberRepository memberRepository;
+    private MemberTestRepository memberTestRepository;
+    private MemberSearchQueryTemplates memberSearchQueryTemplates;
+
+    private MemberSearchCondition condition;
+    private MemberSearchCondition ageCondition;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        memberRepository = context.getBean(MemberRepository.class);
+        memberTestRepository = context.getBean(MemberTestRepository.class);
+        memberSearchQueryTemplates = context.getBean(MemberSearchQueryTemplates.class);
+
+        condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(30);
+
+        // 팀 조건 없이 나이 범위만: searchByBuilder / searchByQuerydsl 의 where 절이 같아진다
+        ageCondition = new MemberSearchCondition();
+        ageCondition.setAgeGoe(20);
+        ageCondition.setAgeLoe(30);
+        pageable = PageRequest.of(10, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 같은 where 절에서 BooleanBuilder 와 where(BooleanExpression...) 의 조립 비용만 비교
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberJpaRepository.searchByBuilder(ageCondition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByQuerydsl() {
+        return memberJpaRepository.searchByQuerydsl(ageCondition);
+    }
+
+    // 팀 조건의 두 가지 형태: join 한 team.name = ? (searchByBuilder)
+    @Benchmark
+    public List<MemberTeamDto> searchByTeamNameJoin() {
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    // 팀 조건의 두 가지 형태: TeamIdResolver 로 푼 member.team.id in (...) (searchByQuerydsl)
+    @Benchmark
+    public List<MemberTeamDto> searchByTeamIdIn() {
+        return memberJpaRepository.searchByQuerydsl(condition);
+    }
+
+    // 미리 만들어 둔 JPQL 템플릿 (MemberJpaRepository.search() 에서 결과 캐시를 뺀 질의 경로)
+    @Benchmark
+    public List<MemberTeamDto> searchByTemplate() {
+        return memberSearchQueryTemplates.search(condition);
+    }
+
+    // 참고용: 첫 호출 이후에는 질의 없이 결과 캐시 조회 + DTO 복사만 측정됨 (질의 전략 비교 대상 아님)
+    @Benchmark
+    public List<MemberTeamDto> searchCached() {
+        return memberJpaRepository.search(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepository.searchPageSimple(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+        return memberRepository.searchPageComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplexQueryCountWhenItNeeded() {
+        return memberRepository.searchPageComplexQueryCountWhenItNeeded(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<Member> applyPagination() {
+        return memberTestRepository.applyPagination(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<Member> applyPagination2() {
+        return memberTestRepository.applyPagination2(condition, pageable);
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 페이징 카운트 쿼리를 컨텐츠 쿼리와 동시에 실행하기 위한 스레드풀
+ * 카운트 쿼리 하나가 커넥션 하나를 쓰고, 기다리는 요청 스레드도 커넥션을 쥐고 있으므로 커넥션 풀 크기보다 작게 잡는다.
+ * 큐도 작게 제한하고, 가득 차면 작업을 거절한다. (Querydsl4RepositorySupport 가 요청 스레드의 커넥션으로 직접 카운트)
+ */
+@Configuration
+public class CountQueryExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor countQueryExecutor(
+            @Value("${querydsl.count-query.pool-size:4}") int poolSize,
+            @Value("${querydsl.count-query.queue-capacity:16}") int queueCapacity,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        Assert.isTrue(poolSize < connectionPoolSize,
+                "querydsl.count-query.pool-size must be smaller than the connection pool size (" + connectionPoolSize + ")");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("count-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,17 @@
+package study.querydsl.config;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * JPQL 에서 쓸 수 없는 SQL 함수 등록
+ * count_over: count(*) over() - 페이징(limit/offset) 적용 전 전체 결과 수를 각 row 에 함께 반환 (윈도우 함수)
+ */
+public class CustomH2Dialect extends H2Dialect {
+
+    public CustomH2Dialect() {
+        super();
+        registerFunction("count_over", new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over()"));
+    }
+}
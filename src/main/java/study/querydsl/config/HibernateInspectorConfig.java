@@ -0,0 +1,41 @@
+package study.querydsl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.monitoring.SqlCountingStatementInspector;
+import study.querydsl.repository.cache.BulkUpdateInvalidationInspector;
+import study.querydsl.repository.cache.MemberSearchCache;
+import study.querydsl.repository.cache.TeamIdCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 하이버네이트 StatementInspector 등록
+ * 세션 팩토리당 하나만 등록할 수 있으므로 여러 inspector 를 순서대로 호출하는 inspector 하나로 묶는다.
+ * SQL 집계(SqlCountingStatementInspector)는 운영(prod) 프로파일에서 빈이 없으므로 캐시 무효화만 등록된다.
+ */
+@Configuration
+public class HibernateInspectorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(MemberSearchCache memberSearchCache,
+                                                                      TeamIdCache teamIdCache,
+                                                                      ObjectProvider<SqlCountingStatementInspector> sqlCountingStatementInspector) {
+        List<StatementInspector> inspectors = new ArrayList<>();
+        inspectors.add(new BulkUpdateInvalidationInspector(memberSearchCache, teamIdCache));
+        sqlCountingStatementInspector.ifAvailable(inspectors::add);
+        StatementInspector composite = sql -> {
+            String result = sql;
+            for (StatementInspector inspector : inspectors) {
+                result = inspector.inspect(result);
+            }
+            return result;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, composite);
+    }
+}
@@ -0,0 +1,38 @@
+package study.querydsl.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * username 목록 조회의 조각을 동시에 실행하기 위한 스레드풀 (MemberJpaRepository.findByUsernames(usernames, true))
+ * 카운트 쿼리 풀(CountQueryExecutorConfig)과 나눠서 조각 조회가 몰려도 카운트 쿼리가 밀리지 않게 한다.
+ * 두 풀 모두 작업 하나가 커넥션 하나를 쓰므로, 합쳐서 커넥션 풀 크기보다 작게 잡는다.
+ * 큐가 가득 차면 작업을 거절한다. (MemberJpaRepository 가 요청 스레드의 커넥션으로 직접 조회)
+ */
+@Configuration
+public class UsernameLookupExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor usernameLookupExecutor(
+            @Value("${querydsl.username-lookup.pool-size:2}") int poolSize,
+            @Value("${querydsl.username-lookup.queue-capacity:8}") int queueCapacity,
+            @Value("${querydsl.count-query.pool-size:4}") int countPoolSize,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        Assert.isTrue(poolSize + countPoolSize < connectionPoolSize,
+                "querydsl.username-lookup.pool-size + querydsl.count-query.pool-size must be smaller than the connection pool size ("
+                        + connectionPoolSize + ")");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("username-lookup-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -3,12 +3,22 @@ package study.querydsl.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.querydsl.dto.MemberCursor;
+import study.querydsl.dto.MemberKeysetPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.MemberTeamDto;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSearchCoalescer;
+import study.querydsl.repository.cache.MemberSearchCache;
+import study.querydsl.repository.cache.MemberSearchCacheStats;
+import study.querydsl.repository.cache.SingleFlightStats;
 
 import java.util.List;
 
@@ -16,23 +26,50 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MemberController {
 
+    // Pageable 의 최대 페이지 크기(spring.data.web.pageable.max-page-size 기본값)와 같게 제한
+    private static final int MAX_KEYSET_SIZE = 2000;
+
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberSearchCache memberSearchCache;
+    private final MemberSearchCoalescer memberSearchCoalescer;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberTeamV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+        return memberSearchCoalescer.search(condition);
+    }
+
+    // 검색 캐시 크기 조정용 hit/miss/eviction 카운터
+    @GetMapping("/v1/members/cache-stats")
+    public MemberSearchCacheStats searchCacheStats() {
+        return memberSearchCache.stats();
+    }
+
+    // 동시 요청 합치기 현황: 실제 실행 수 대비 공유받은 호출 수
+    @GetMapping("/v1/members/coalesce-stats")
+    public SingleFlightStats coalesceStats() {
+        return memberSearchCoalescer.searchStats();
     }
 
     // http://localhost:8080/v2/members?page=0&size=5
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberTeamV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+        return memberSearchCoalescer.searchPageSimple(condition, pageable);
+    }
+
+    @GetMapping("/v2/members/coalesce-stats")
+    public SingleFlightStats coalescePageStats() {
+        return memberSearchCoalescer.pageStats();
     }
 
+    // http://localhost:8080/v3/members?page=5000&size=20&deferredJoin=true
+    // deferredJoin=true 이면 id 만 먼저 페이징한 뒤 해당 row 를 조회 (깊은 페이지에서 유리)
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberTeamV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    public Page<MemberTeamDto> searchMemberTeamV3(MemberSearchCondition condition, Pageable pageable,
+                                                  @RequestParam(defaultValue = "false") boolean deferredJoin) {
+        return deferredJoin
+                ? memberRepository.searchPageDeferredJoin(condition, pageable)
+                : memberRepository.searchPageComplex(condition, pageable);
     }
 
     // http://localhost:8080/v2/members?page=0&size=110
@@ -44,4 +81,39 @@ public class MemberController {
         return memberRepository.searchPageComplexQueryCountWhenItNeeded(condition, pageable);
     }
 
+    // http://localhost:8080/v5/members?size=20&sort=age
+    // 응답의 nextCursor 를 그대로 넘겨서 다음 페이지 조회: http://localhost:8080/v5/members?size=20&cursor=...
+    // 커서에 정렬 방식이 들어있으므로 cursor 가 있으면 sort 파라미터는 무시된다.
+    @GetMapping("/v5/members")
+    public MemberKeysetPage searchMemberTeamV5(MemberSearchCondition condition,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(defaultValue = "id") String sort) {
+        if (size < 1 || size > MAX_KEYSET_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_KEYSET_SIZE);
+        }
+        MemberCursor memberCursor;
+        try {
+            memberCursor = cursor == null
+                    ? MemberCursor.first("age".equals(sort))
+                    : MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return memberRepository.searchByKeyset(condition, memberCursor, size);
+    }
+
+    // 컨텐츠 + 전체 개수를 쿼리 한 번으로 (count(*) over())
+    @GetMapping("/v6/members")
+    public Page<MemberTeamDto> searchMemberTeamV6(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.searchPageWithWindowCount(condition, pageable);
+    }
+
+    // 무한 스크롤용: 전체 개수 없이 다음 페이지 존재 여부(hasNext)만 반환, count 쿼리 없음
+    // http://localhost:8080/v7/members?page=0&size=20
+    @GetMapping("/v7/members")
+    public Slice<MemberTeamDto> searchMemberTeamV7(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.searchSlice(condition, pageable);
+    }
+
 }
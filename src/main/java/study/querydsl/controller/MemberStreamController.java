@@ -0,0 +1,67 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 검색 결과 전체 내보내기: 한 줄에 JSON 하나(NDJSON)씩 응답 스트림에 바로 쓴다.
+ * 결과를 List 로 모으지 않으므로 수백만 건이어도 힙 사용량이 일정하다.
+ */
+@RestController
+public class MemberStreamController {
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+    private final int flushInterval;
+
+    public MemberStreamController(MemberJpaRepository memberJpaRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${querydsl.stream.fetch-size:500}") int fetchSize,
+                                  @Value("${querydsl.stream.flush-interval:1000}") int flushInterval) {
+        if (fetchSize < 1 || flushInterval < 1) {
+            throw new IllegalArgumentException("querydsl.stream.fetch-size and flush-interval must be greater than zero");
+        }
+        this.memberJpaRepository = memberJpaRepository;
+        this.writer = objectMapper.writerFor(MemberTeamDto.class);
+        this.fetchSize = fetchSize;
+        this.flushInterval = flushInterval;
+    }
+
+    // http://localhost:8080/members/stream?teamName=teamA
+    @GetMapping("/members/stream")
+    public ResponseEntity<StreamingResponseBody> streamMembers(MemberSearchCondition condition) {
+        StreamingResponseBody body = out -> {
+            long[] written = {0};
+            memberJpaRepository.streamSearch(condition, fetchSize, dto -> {
+                try {
+                    out.write(writer.writeValueAsBytes(dto));
+                    out.write('\n');
+                    if (++written[0] % flushInterval == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.monitoring.QueryPlanCacheMonitor;
+import study.querydsl.monitoring.QueryPlanCacheStats;
+
+/**
+ * 쿼리 플랜 캐시 통계 (하이버네이트 통계를 켜는 local 에서 보는 용도, 운영(prod) 프로파일에서는 등록하지 않음)
+ */
+@Profile("!prod")
+@RestController
+@RequiredArgsConstructor
+public class QueryPlanCacheController {
+
+    private final QueryPlanCacheMonitor queryPlanCacheMonitor;
+
+    // IN 절 패딩 효과 확인용 (hibernate.generate_statistics=true 일 때만 집계)
+    @GetMapping("/v1/members/plan-cache-stats")
+    public QueryPlanCacheStats planCacheStats() {
+        return queryPlanCacheMonitor.stats();
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.TeamRosterDto;
+import study.querydsl.repository.TeamRepository;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+
+    // http://localhost:8080/teams?page=0&size=10
+    // 팀 목록 쿼리 1번 + 회원 목록 쿼리 1번 (N+1 없음)
+    @GetMapping("/teams")
+    public Slice<TeamRosterDto> teams(Pageable pageable) {
+        return teamRepository.findRosters(pageable);
+    }
+}
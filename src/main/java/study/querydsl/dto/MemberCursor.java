@@ -0,0 +1,63 @@
+package study.querydsl.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import study.querydsl.entity.MemberTeamDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징용 커서: 마지막으로 내려준 row 의 정렬 키(age, member.id)를 담는다.
+ * 클라이언트에게는 의미를 알 수 없는 문자열(encode())로만 노출한다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberCursor {
+
+    private static final String ID_PREFIX = "i";
+    private static final String AGE_PREFIX = "a";
+
+    private final boolean sortByAge;
+    private final Integer age;
+    private final Long memberId;
+
+    public static MemberCursor first(boolean sortByAge) {
+        return new MemberCursor(sortByAge, null, null);
+    }
+
+    public static MemberCursor after(MemberTeamDto last, boolean sortByAge) {
+        return new MemberCursor(sortByAge, sortByAge ? last.getAge() : null, last.getMemberId());
+    }
+
+    public boolean isFirst() {
+        return memberId == null;
+    }
+
+    public String encode() {
+        String raw = sortByAge
+                ? AGE_PREFIX + ":" + age + ":" + memberId
+                : ID_PREFIX + ":" + memberId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] tokens = raw.split(":");
+            if (tokens.length == 2 && ID_PREFIX.equals(tokens[0])) {
+                return new MemberCursor(false, null, Long.valueOf(tokens[1]));
+            }
+            if (tokens.length == 3 && AGE_PREFIX.equals(tokens[0])) {
+                return new MemberCursor(true, Integer.valueOf(tokens[1]), Long.valueOf(tokens[2]));
+            }
+        } catch (IllegalArgumentException e) { // Base64 디코딩 실패, NumberFormatException 포함
+            throw new IllegalArgumentException("Invalid member cursor: " + cursor, e);
+        }
+        throw new IllegalArgumentException("Invalid member cursor: " + cursor);
+    }
+}
@@ -0,0 +1,26 @@
+package study.querydsl.dto;
+
+import lombok.Getter;
+import study.querydsl.entity.MemberTeamDto;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과: 페이지 번호 대신 다음 페이지를 요청할 커서(nextCursor)를 돌려준다.
+ * 마지막 페이지이면 nextCursor 는 null.
+ */
+@Getter
+public class MemberKeysetPage {
+
+    private final List<MemberTeamDto> content;
+    private final int size;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public MemberKeysetPage(List<MemberTeamDto> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = nextCursor != null;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,22 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 팀 + 소속 회원 목록
+ */
+@Data
+public class TeamRosterDto {
+
+    private Long teamId;
+    private String teamName;
+    private List<TeamRosterMemberDto> members;
+
+    public TeamRosterDto(Long teamId, String teamName, List<TeamRosterMemberDto> members) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.members = members;
+    }
+}
@@ -0,0 +1,18 @@
+package study.querydsl.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.file.Path;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ExportReport {
+
+    private final Path path;
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+}
@@ -0,0 +1,219 @@
+package study.querydsl.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * member left join team 전체를 CSV 파일로 내보내기 (분석용 덤프)
+ * - StatelessSession: 1차 캐시/스냅샷/지연로딩 프록시 없이 row 를 그대로 읽음
+ * - scroll(FORWARD_ONLY) + fetchSize: 전체 결과를 메모리에 올리지 않음
+ * - 파일은 mapChunkSize 단위로 메모리 매핑해서 버퍼에 바로 쓰고 (row 마다 write 시스템 콜 없음)
+ *   다 차면 다음 구간을 매핑, 끝나면 실제 쓴 크기로 잘라낸다.
+ * - 같은 디렉터리의 임시 파일에 쓰고, 다 쓴 뒤에만 target 으로 옮긴다. (중간에 실패하면 target 은 그대로)
+ */
+@Slf4j
+@Service
+public class MemberExportService {
+
+    private static final String HEADER = "member_id,username,age,team_id,team_name\n";
+    private static final String QUERY =
+            "select m.id, m.username, m.age, t.id, t.name from Member m left join m.team t order by m.id";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+    private final long mapChunkSize;
+
+    public MemberExportService(EntityManagerFactory entityManagerFactory,
+                               @Value("${querydsl.export.fetch-size:1000}") int fetchSize,
+                               @Value("${querydsl.export.map-chunk-size:67108864}") long mapChunkSize) {
+        // 0 이하는 scroll/FileChannel.map 깊은 곳에서야 실패하므로 미리 거절 (한 번에 매핑할 수 있는 크기는 Integer.MAX_VALUE 까지)
+        if (fetchSize < 1 || mapChunkSize < 1 || mapChunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "querydsl.export.fetch-size must be greater than zero and map-chunk-size between 1 and " + Integer.MAX_VALUE);
+        }
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+        this.mapChunkSize = mapChunkSize;
+    }
+
+    public ExportReport exportCsv(Path target) {
+        long start = System.nanoTime();
+        Path temp = createTempFile(target);
+        try {
+            long rows = writeCsv(temp);
+            long bytes = Files.size(temp);
+            moveIntoPlace(temp, target);
+            ExportReport report = new ExportReport(target, rows, bytes, (System.nanoTime() - start) / 1_000_000);
+            log.info("member export finished: {}", report);
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Member export failed: " + target, e);
+        } finally {
+            deleteQuietly(temp); // 실패했으면 중간까지 쓴 임시 파일 정리 (성공했으면 이미 옮겨져서 없음)
+        }
+    }
+
+    // @return 내보낸 row 수
+    private long writeCsv(Path path) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try (MappedFileWriter writer = new MappedFileWriter(path, mapChunkSize)) {
+            Transaction tx = session.beginTransaction();
+            try {
+                ScrollableResults results = session.createQuery(QUERY)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true)
+                        .scroll(ScrollMode.FORWARD_ONLY);
+                long rows = 0;
+                try {
+                    writer.write(HEADER.getBytes(StandardCharsets.UTF_8));
+                    while (results.next()) {
+                        line.setLength(0);
+                        appendValue(line, results.get(0)).append(',');
+                        appendText(line, (String) results.get(1)).append(',');
+                        appendValue(line, results.get(2)).append(',');
+                        appendValue(line, results.get(3)).append(',');
+                        appendText(line, (String) results.get(4)).append('\n');
+                        writer.write(line.toString().getBytes(StandardCharsets.UTF_8));
+                        rows++;
+                    }
+                } finally {
+                    results.close();
+                }
+                tx.commit();
+                return rows;
+            } catch (IOException | RuntimeException e) {
+                rollbackQuietly(tx, e);
+                throw e;
+            }
+        } finally {
+            session.close();
+        }
+    }
+
+    // 조회/쓰기 실패 시 연결을 열린 트랜잭션째로 풀에 돌려주지 않도록 롤백 (롤백 실패는 원래 예외에 붙임)
+    private static void rollbackQuietly(Transaction tx, Exception cause) {
+        try {
+            if (tx.getStatus().canRollback()) {
+                tx.rollback();
+            }
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    // 같은 디렉터리에 만들어야 move 가 복사 없이 rename 으로 처리됨
+    private static Path createTempFile(Path target) {
+        Path dir = target.toAbsolutePath().getParent();
+        try {
+            return Files.createTempFile(dir, target.getFileName() + ".", ".tmp");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Member export failed: " + target, e);
+        }
+    }
+
+    // 다 쓴 파일만 target 으로 옮긴다. (읽는 쪽이 쓰는 중인 파일이나 중간에 실패한 파일을 보지 않도록)
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("failed to delete export temp file: {}", path, e);
+        }
+    }
+
+    private static StringBuilder appendValue(StringBuilder line, Object value) {
+        return value == null ? line : line.append(value);
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 안쪽 따옴표는 두 번 (RFC 4180)
+    private static StringBuilder appendText(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * 파일을 chunkSize 구간씩 매핑해서 쓰는 writer
+     */
+    static class MappedFileWriter implements AutoCloseable {
+        private final Path path;
+        private final FileChannel channel;
+        private final long chunkSize;
+        private MappedByteBuffer buffer;
+        private long bufferStart;
+
+        MappedFileWriter(Path path, long chunkSize) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.chunkSize = chunkSize;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, chunkSize);
+        }
+
+        void write(byte[] bytes) throws IOException {
+            if (buffer.remaining() < bytes.length) {
+                remap(Math.max(chunkSize, bytes.length));
+            }
+            buffer.put(bytes);
+        }
+
+        long position() {
+            return bufferStart + buffer.position();
+        }
+
+        private void remap(long size) throws IOException {
+            bufferStart = position();
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, bufferStart, size);
+        }
+
+        /**
+         * 매핑하느라 늘어난 뒷부분을 잘라낸다.
+         * 버퍼를 force 한 뒤 더 이상 쓰지 않는 상태에서 자른다. (잘린 구간에 접근하면 SIGBUS)
+         * 채널을 닫아도 매핑 자체는 버퍼가 GC 될 때까지 남으므로, 매핑된 파일을 자를 수 없는 Windows 에서는 truncate 가 실패할 수 있다.
+         */
+        @Override
+        public void close() throws IOException {
+            long size = position();
+            try {
+                buffer.force();
+            } finally {
+                buffer = null;
+                channel.close();
+            }
+            try (FileChannel truncating = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                truncating.truncate(size);
+            }
+        }
+    }
+}
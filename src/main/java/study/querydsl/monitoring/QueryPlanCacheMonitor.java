@@ -0,0 +1,25 @@
+package study.querydsl.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * IN 절 패딩 효과 확인용: 파라미터 개수가 달라질 때마다 플랜 캐시 miss 가 생긴다.
+ */
+@Component
+public class QueryPlanCacheMonitor {
+
+    private final Statistics statistics;
+
+    public QueryPlanCacheMonitor(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public QueryPlanCacheStats stats() {
+        return new QueryPlanCacheStats(statistics.isStatisticsEnabled(),
+                statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount());
+    }
+}
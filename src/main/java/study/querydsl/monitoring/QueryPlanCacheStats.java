@@ -0,0 +1,16 @@
+package study.querydsl.monitoring;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 하이버네이트 쿼리 플랜 캐시 통계 (hibernate.generate_statistics=true 일 때만 집계됨)
+ */
+@Getter
+@RequiredArgsConstructor
+public class QueryPlanCacheStats {
+
+    private final boolean enabled;
+    private final long hitCount;
+    private final long missCount;
+}
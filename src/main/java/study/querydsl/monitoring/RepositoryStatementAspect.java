@@ -0,0 +1,34 @@
+package study.querydsl.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 레포지토리 메서드 실행 중에 나간 SQL 을 해당 메서드 이름으로 집계하기 위해 호출 스택을 기록
+ * 모든 레포지토리 호출에 프록시가 끼므로 SQL 집계처럼 운영(prod) 프로파일에서는 등록하지 않음
+ */
+@Aspect
+@Profile("!prod")
+@Component
+public class RepositoryStatementAspect {
+
+    private final SqlStatementTracker tracker;
+
+    public RepositoryStatementAspect(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Around("(within(study.querydsl.repository..*) && !within(study.querydsl.repository.cache..*))" +
+            " || target(org.springframework.data.repository.Repository)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        tracker.enterMethod(joinPoint.getSignature().toShortString());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            tracker.exitMethod();
+        }
+    }
+}
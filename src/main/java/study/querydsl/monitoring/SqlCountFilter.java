@@ -0,0 +1,40 @@
+package study.querydsl.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청마다 SQL 집계 시작/종료 (운영(prod) 프로파일에서는 등록하지 않음)
+ */
+@Slf4j
+@Profile("!prod")
+@Component
+public class SqlCountFilter extends OncePerRequestFilter {
+
+    private final SqlStatementTracker tracker;
+
+    public SqlCountFilter(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        tracker.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementStats stats = tracker.end();
+            log.debug("{} {}: {} statements, max repeat {}, by method {}", request.getMethod(),
+                    request.getRequestURI(), stats.getTotal(), stats.getMaxRepeat(), stats.getCountByMethod());
+        }
+    }
+}
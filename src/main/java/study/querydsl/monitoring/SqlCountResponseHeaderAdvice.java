@@ -0,0 +1,45 @@
+package study.querydsl.monitoring;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 응답 바디를 쓰기 직전에 지금까지 실행된 SQL 수를 응답 헤더로 내려준다. (운영(prod) 프로파일 제외)
+ * X-Sql-Count: 전체 SQL 수, X-Sql-Max-Repeat: 같은 SQL 이 가장 많이 반복된 횟수 (N+1 이면 커짐)
+ */
+@Profile("!prod")
+@RestControllerAdvice
+public class SqlCountResponseHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SQL_COUNT_HEADER = "X-Sql-Count";
+    public static final String SQL_MAX_REPEAT_HEADER = "X-Sql-Max-Repeat";
+
+    private final SqlStatementTracker tracker;
+
+    public SqlCountResponseHeaderAdvice(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementStats stats = tracker.current();
+        if (stats != null) {
+            response.getHeaders().set(SQL_COUNT_HEADER, String.valueOf(stats.getTotal()));
+            response.getHeaders().set(SQL_MAX_REPEAT_HEADER, String.valueOf(stats.getMaxRepeat()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,25 @@
+package study.querydsl.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 하이버네이트가 실행하는 모든 SQL 을 SqlStatementTracker 에 기록 (운영(prod) 프로파일에서는 등록하지 않음)
+ */
+@Profile("!prod")
+@Component
+public class SqlCountingStatementInspector implements StatementInspector {
+
+    private final SqlStatementTracker tracker;
+
+    public SqlCountingStatementInspector(SqlStatementTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        tracker.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,66 @@
+package study.querydsl.monitoring;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 요청 하나 동안 실행된 SQL 통계 (요청 스레드 하나에서만 쓰므로 동기화하지 않음)
+ */
+public class SqlStatementStats {
+
+    private int total;
+    private int maxRepeat;
+    private final Map<String, Integer> countByStatement = new HashMap<>();
+    private final Map<String, Integer> countByMethod = new HashMap<>();
+    private final Map<String, Integer> countByType = new HashMap<>();
+
+    /**
+     * @return 같은 SQL(하이버네이트 SQL 은 파라미터가 ? 이므로 SQL 문자열 = 쿼리 모양)이 지금까지 실행된 횟수
+     */
+    int record(String sql, String method) {
+        total++;
+        countByMethod.merge(method, 1, Integer::sum);
+        countByType.merge(typeOf(sql), 1, Integer::sum);
+        int repeat = countByStatement.merge(sql, 1, Integer::sum);
+        maxRepeat = Math.max(maxRepeat, repeat);
+        return repeat;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getMaxRepeat() {
+        return maxRepeat;
+    }
+
+    /**
+     * @return 실행된 SQL 모양들 (중복 제거)
+     */
+    public Set<String> getStatements() {
+        return Collections.unmodifiableSet(countByStatement.keySet());
+    }
+
+    public Map<String, Integer> getCountByMethod() {
+        return Collections.unmodifiableMap(countByMethod);
+    }
+
+    /**
+     * @param type select, insert, update, delete (시퀀스 호출 등은 첫 단어 그대로)
+     */
+    public int getCount(String type) {
+        return countByType.getOrDefault(type, 0);
+    }
+
+    private static String typeOf(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+}
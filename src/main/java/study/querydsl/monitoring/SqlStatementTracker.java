@@ -0,0 +1,87 @@
+package study.querydsl.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 스레드(요청) 단위 SQL 실행 횟수 집계 + N+1 의심 경고
+ * begin() ~ end() 사이에 실행된 SQL 만 센다. (begin 하지 않은 스레드에서는 아무것도 하지 않음)
+ * begin() 은 중첩할 수 있다. 바깥 범위는 안쪽 범위의 SQL 도 함께 세고, end() 는 가장 안쪽 범위를 닫는다.
+ * (테스트의 @ExpectQueries 와 테스트 안에서 직접 begin/end 하는 집계가 서로의 숫자를 지우지 않도록)
+ * 어떤 레포지토리 메서드에서 실행됐는지는 RepositoryStatementAspect 가 enter/exit 로 알려준다.
+ * 범위는 스레드에 묶이므로 다른 스레드에서 실행된 SQL 은 요청 집계에 들어가지 않는다.
+ * (countQueryExecutor 의 비동기 카운트 쿼리, usernameLookupExecutor 의 username 조각 조회 등)
+ * 집계하는 쪽(SqlCountFilter, @ExpectQueries)과 함께 운영(prod) 프로파일에서는 등록하지 않음
+ */
+@Slf4j
+@Profile("!prod")
+@Component
+public class SqlStatementTracker {
+
+    private static final String NO_METHOD = "(none)";
+
+    private final ThreadLocal<Deque<SqlStatementStats>> scopes = new ThreadLocal<>();
+    private final ThreadLocal<Deque<String>> methods = ThreadLocal.withInitial(ArrayDeque::new);
+    private final int repeatThreshold;
+
+    public SqlStatementTracker(@Value("${querydsl.sql-monitor.repeat-threshold:10}") int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public void begin() {
+        Deque<SqlStatementStats> stack = scopes.get();
+        if (stack == null) {
+            stack = new ArrayDeque<>();
+            scopes.set(stack);
+        }
+        stack.push(new SqlStatementStats());
+    }
+
+    // 가장 안쪽 범위의 집계
+    public SqlStatementStats current() {
+        Deque<SqlStatementStats> stack = scopes.get();
+        return stack == null ? null : stack.peek();
+    }
+
+    public SqlStatementStats end() {
+        Deque<SqlStatementStats> stack = scopes.get();
+        if (stack == null) {
+            return null;
+        }
+        SqlStatementStats stats = stack.pop();
+        if (stack.isEmpty()) {
+            scopes.remove();
+            methods.remove();
+        }
+        return stats;
+    }
+
+    void enterMethod(String method) {
+        methods.get().push(method);
+    }
+
+    void exitMethod() {
+        methods.get().poll();
+    }
+
+    void record(String sql) {
+        Deque<SqlStatementStats> stack = scopes.get();
+        if (stack == null) {
+            return;
+        }
+        String method = methods.get().isEmpty() ? NO_METHOD : methods.get().peek();
+        int repeat = 0;
+        for (SqlStatementStats stats : stack) { // 안쪽 -> 바깥 순, 경고는 가장 바깥 범위 기준
+            repeat = stats.record(sql, method);
+        }
+        if (repeat == repeatThreshold + 1) { // 기준을 넘는 순간 한 번만 경고
+            log.warn("Possible N+1: same statement executed more than {} times in one request (repository method: {}): {}",
+                    repeatThreshold, method, sql);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package study.querydsl.repository;
+
+import study.querydsl.entity.Member;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DataLoader 방식의 findById: load(id) 로 요청만 모아두고 dispatch() 때 한꺼번에 조회한다.
+ * id N 개가 findById N 번(쿼리 N 번) 대신 member.id.in(...) ceil(N / BATCH_SIZE) 번으로 줄어든다.
+ * 요청(트랜잭션) 하나 안에서 쓰는 객체 (스레드 안전하지 않음), MemberJpaRepository.batchLoader() 로 생성
+ *
+ * 예:
+ *   MemberBatchLoader loader = memberJpaRepository.batchLoader();
+ *   List<CompletableFuture<Optional<Member>>> futures = ids.stream().map(loader::load).collect(toList());
+ *   loader.dispatch();
+ */
+public class MemberBatchLoader {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final Map<Long, CompletableFuture<Optional<Member>>> pending = new LinkedHashMap<>();
+
+    MemberBatchLoader(MemberJpaRepository memberJpaRepository) {
+        this.memberJpaRepository = memberJpaRepository;
+    }
+
+    /**
+     * 같은 id 를 여러 번 요청하면 같은 future 를 돌려준다.
+     */
+    public CompletableFuture<Optional<Member>> load(Long id) {
+        return pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * 모아둔 id 를 조회해서 future 를 완료시킨다. 조회 실패 시 모아둔 future 모두 예외로 완료.
+     */
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, CompletableFuture<Optional<Member>>> batch = new LinkedHashMap<>(pending);
+        pending.clear();
+        try {
+            Map<Long, Member> found = memberJpaRepository.findAllById(batch.keySet());
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+}
@@ -2,16 +2,38 @@ package study.querydsl.repository;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.MemberTeamDto;
 import study.querydsl.entity.QMemberTeamDto;
+import study.querydsl.repository.cache.MemberSearchCache;
+import study.querydsl.repository.support.InListPadding;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -20,12 +42,32 @@ import static study.querydsl.entity.QTeam.team;
 @Repository
 public class MemberJpaRepository {
 
+    static final int BATCH_SIZE = 128; // InListPadding.chunk 참고
+    static final int[] USERNAME_BUCKETS = {8, 32, 128, 512}; // 마지막 값이 조각 크기
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberSearchCache memberSearchCache;
+    private final MemberSearchQueryTemplates memberSearchQueryTemplates;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Executor usernameLookupExecutor;
+    private final TeamIdResolver teamIdResolver;
+    private final ObjectProvider<MemberJpaRepository> self; // 스프링 프록시 (batchLoader 참고)
 
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em, MemberSearchCache memberSearchCache,
+                               MemberSearchQueryTemplates memberSearchQueryTemplates,
+                               EntityManagerFactory entityManagerFactory,
+                               @Qualifier("usernameLookupExecutor") Executor usernameLookupExecutor,
+                               TeamIdResolver teamIdResolver,
+                               ObjectProvider<MemberJpaRepository> self) {
         this.em = em;
         this.queryFactory = new JPAQueryFactory(em); // 스프링빈으로 등록해도 됨 (@Bean, @Component 등), 테스트 코드짤때 조금더 편리해서 new로 생성함
+        this.memberSearchCache = memberSearchCache;
+        this.memberSearchQueryTemplates = memberSearchQueryTemplates;
+        this.entityManagerFactory = entityManagerFactory;
+        this.usernameLookupExecutor = usernameLookupExecutor;
+        this.teamIdResolver = teamIdResolver;
+        this.self = self;
     }
 
     public void save(Member member) {
@@ -37,13 +79,116 @@ public class MemberJpaRepository {
         return Optional.ofNullable(findMember);
     }
 
+    /**
+     * id 목록 조회: member.id.in(...) 을 BATCH_SIZE 개씩 나눠서 실행 (id N 개에 쿼리 ceil(N / BATCH_SIZE) 번)
+     * 조각 크기는 2의 거듭제곱으로 패딩해서 IN 절 길이별 쿼리 플랜이 몇 개로 고정되게 한다.
+     * 없는 id 는 결과 맵에 들어가지 않음
+     */
+    public Map<Long, Member> findAllById(Collection<Long> ids) {
+        Map<Long, Member> result = new HashMap<>();
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        for (List<Long> chunk : InListPadding.chunk(distinctIds, BATCH_SIZE)) {
+            queryFactory
+                    .selectFrom(member)
+                    .where(member.id.in(InListPadding.padToPowerOfTwo(chunk)))
+                    .fetch()
+                    .forEach(found -> result.put(found.getId(), found));
+        }
+        return result;
+    }
+
+    /**
+     * username 목록 조회: 수백 개를 IN 절 하나로 보내지 않고 USERNAME_BUCKETS 의 마지막 크기씩 나눈 뒤,
+     * 조각마다 길이를 bucket 크기(8, 32, 128, 512)로 패딩해서 쿼리 플랜이 bucket 수만큼만 생기게 한다.
+     * 결과는 조각 순서대로 합친다. (한 조각 안의 순서는 DB 순서)
+     */
+    public List<Member> findByUsernames(Collection<String> usernames) {
+        return findByUsernames(usernames, false);
+    }
+
+    /**
+     * @param concurrent true 면 조각마다 별도 스레드(usernameLookupExecutor), 별도 읽기 전용 EntityManager(커넥션)에서 동시에 실행한다.
+     *                   이 경우 결과 엔티티는 준영속 상태이고, 현재 트랜잭션에서 아직 커밋되지 않은 변경은 보이지 않는다.
+     */
+    public List<Member> findByUsernames(Collection<String> usernames, boolean concurrent) {
+        List<String> distinctUsernames = usernames.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        List<List<String>> chunks = InListPadding.chunk(distinctUsernames, USERNAME_BUCKETS[USERNAME_BUCKETS.length - 1]);
+        if (!concurrent || chunks.size() < 2) {
+            List<Member> result = new ArrayList<>();
+            for (List<String> chunk : chunks) {
+                result.addAll(findByUsernameChunk(queryFactory, chunk));
+            }
+            return result;
+        }
+        List<CompletableFuture<List<Member>>> futures = chunks.stream()
+                .map(this::submitChunk)
+                .collect(Collectors.toList());
+        return futures.stream()
+                .map(this::join)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    // 스레드풀/큐가 가득 차면 커넥션을 더 잡지 않고 현재 스레드의 EntityManager 로 실행
+    private CompletableFuture<List<Member>> submitChunk(List<String> chunk) {
+        try {
+            return CompletableFuture.supplyAsync(() -> findByUsernameChunkReadOnly(chunk), usernameLookupExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(findByUsernameChunk(queryFactory, chunk));
+        }
+    }
+
+    private List<Member> findByUsernameChunk(JPAQueryFactory factory, List<String> chunk) {
+        return factory
+                .selectFrom(member)
+                .where(member.username.in(InListPadding.padToBucket(chunk, USERNAME_BUCKETS)))
+                .fetch();
+    }
+
+    private List<Member> findByUsernameChunkReadOnly(List<String> chunk) {
+        EntityManager readOnlyEntityManager = entityManagerFactory.createEntityManager();
+        try {
+            Session session = readOnlyEntityManager.unwrap(Session.class);
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            return findByUsernameChunk(new JPAQueryFactory(readOnlyEntityManager), chunk);
+        } finally {
+            readOnlyEntityManager.close();
+        }
+    }
+
+    private <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Username chunk query failed", e.getCause());
+        }
+    }
+
+    /**
+     * this 대신 프록시를 넘겨야 dispatch() 의 findAllById 에도
+     * 예외 변환(@Repository), 트랜잭션, SQL 집계 aspect 가 적용된다.
+     */
+    public MemberBatchLoader batchLoader() {
+        return new MemberBatchLoader(self.getObject());
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
 
+    /**
+     * 읽기 전용 조회: 스냅샷을 만들지 않음 (조회한 엔티티를 수정해도 반영되지 않음)
+     */
+    @Transactional(readOnly = true)
     public List<Member> findAll_queryDSL() {
-        return queryFactory.selectFrom(member).fetch(); // member는 QMember의 스태틱 임포트
+        return queryFactory.selectFrom(member) // member는 QMember의 스태틱 임포트
+                .setHint(QueryHints.HINT_READONLY, true)
+                .fetch();
     }
 
 
@@ -94,7 +239,8 @@ public class MemberJpaRepository {
      * 바로 위 searchByBuilder() 메서드와 같은 역할을 하지만
      * 조금더 가독성이 좋도록 변경한 질의문. (권장 방식)
      */
-    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+    public List<MemberTeamDto> searchByQuerydsl(MemberSearchCondition condition) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
         return queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -105,39 +251,92 @@ public class MemberJpaRepository {
                 .from(member)
                 .leftJoin(member.team, team) // QTeam.team
                 .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageLoe(condition.getAgeLoe()),
                         ageGoe(condition.getAgeGoe()))
                 .fetch();
     }
 
+    /**
+     * searchByQuerydsl() 과 같은 결과지만, 매 호출마다 Querydsl 로 JPQL 을 만들지 않고
+     * 조건 조합별로 미리 만들어 둔 JPQL 에 파라미터만 바인딩한다. (MemberSearchQueryTemplates)
+     * 같은 조건이 반복되는 경우가 많아 결과를 MemberSearchCache 에 캐싱한다.
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return memberSearchCache.get(condition, () -> memberSearchQueryTemplates.search(condition));
+    }
+
+    /**
+     * search() 와 같은 조건이지만 결과를 List 로 모으지 않고 한 row 씩 consumer 에 넘긴다.
+     * stream() 은 내부적으로 Hibernate ScrollableResults(FORWARD_ONLY) 를 사용하고,
+     * fetchSize 만큼씩 JDBC 에서 가져오므로 전체 row 수와 상관없이 메모리 사용량이 일정하다.
+     * DTO 프로젝션이라 영속성 컨텍스트에 엔티티가 쌓이지 않으므로 중간에 비우지 않는다.
+     * (바깥 쓰기 트랜잭션에 참여한 경우 em.clear() 는 호출한 쪽의 flush 안 된 변경까지 버리게 됨)
+     */
+    @Transactional(readOnly = true)
+    public long streamSearch(MemberSearchCondition condition, int fetchSize, Consumer<MemberTeamDto> consumer) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be greater than zero");
+        }
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        long count = 0;
+        try (Stream<MemberTeamDto> stream = queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team) // QTeam.team
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
+                        ageLoe(condition.getAgeLoe()),
+                        ageGoe(condition.getAgeGoe()))
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .stream()) {
+            for (MemberTeamDto dto : (Iterable<MemberTeamDto>) stream::iterator) {
+                consumer.accept(dto);
+                count++;
+            }
+        }
+        return count;
+    }
+
     private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+        return MemberSearchPredicates.usernameEq(username);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? team.name.eq(teamName) : null;
+    private BooleanExpression teamNameEq(String teamName, List<Long> teamIds) {
+        return MemberSearchPredicates.teamNameEq(teamName, teamIds);
     }
 
     private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+        return MemberSearchPredicates.ageLoe(ageLoe);
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
+        return MemberSearchPredicates.ageGoe(ageGoe);
     }
 
     /**
      * 권장방식대로 사용하면, 아래와 같이 재사용하는 것도 가능하다.
+     * 읽기 전용 조회 (findAll_queryDSL 참고)
      */
+    @Transactional(readOnly = true)
     public List<Member> searchMember(MemberSearchCondition condition) {
-        return queryFactory
-                .selectFrom(member)
-                .leftJoin(member.team, team) // QTeam.team
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        JPAQuery<Member> query = queryFactory.selectFrom(member);
+        if (MemberSearchPredicates.teamJoinRequired(condition.getTeamName(), teamIds)) { // team 컬럼은 조회하지 않으므로 조건에 필요할 때만 조인
+            query.leftJoin(member.team, team); // QTeam.team
+        }
+        return query
                 .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageLoe(condition.getAgeLoe()),
                         ageGoe(condition.getAgeGoe()))
+                .setHint(QueryHints.HINT_READONLY, true)
                 .fetch();
     }
 }
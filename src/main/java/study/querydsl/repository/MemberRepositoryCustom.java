@@ -2,6 +2,9 @@ package study.querydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.querydsl.dto.MemberCursor;
+import study.querydsl.dto.MemberKeysetPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.MemberTeamDto;
 
@@ -12,4 +15,8 @@ public interface MemberRepositoryCustom {
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplexQueryCountWhenItNeeded(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchPageWithWindowCount(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchPageDeferredJoin(MemberSearchCondition condition, Pageable pageable);
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+    MemberKeysetPage searchByKeyset(MemberSearchCondition condition, MemberCursor cursor, int size);
 }
@@ -1,52 +1,63 @@
 package study.querydsl.repository;
 
 import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsl.dto.MemberCursor;
+import study.querydsl.dto.MemberKeysetPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.MemberTeamDto;
 import study.querydsl.entity.QMemberTeamDto;
+import study.querydsl.repository.cache.MemberSearchCache;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final JPAQueryFactory queryFactory;
+    private final MemberSearchCache memberSearchCache;
+    private final MemberSearchQueryTemplates memberSearchQueryTemplates;
+    private final TeamIdResolver teamIdResolver;
 
-    public MemberRepositoryImpl(EntityManager em) {
+    public MemberRepositoryImpl(EntityManager em, MemberSearchCache memberSearchCache,
+                                MemberSearchQueryTemplates memberSearchQueryTemplates, TeamIdResolver teamIdResolver) {
         this.queryFactory = new JPAQueryFactory(em);
+        this.memberSearchCache = memberSearchCache;
+        this.memberSearchQueryTemplates = memberSearchQueryTemplates;
+        this.teamIdResolver = teamIdResolver;
     }
 
+    /**
+     *  조건 조합별로 미리 만들어 둔 JPQL 템플릿으로 질의 (MemberSearchQueryTemplates) + 결과 캐시
+     */
+    @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")))
-                .from(member)
-                .leftJoin(member.team, team) // QTeam.team
-                .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageLoe(condition.getAgeLoe()),
-                        ageGoe(condition.getAgeGoe()))
-                .fetch();
+        return memberSearchCache.get(condition, () -> memberSearchQueryTemplates.search(condition));
     }
 
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
         QueryResults<MemberTeamDto> results = queryFactory
                     .select(new QMemberTeamDto(
                             member.id.as("memberId"),
@@ -57,7 +68,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                     .from(member)
                     .leftJoin(member.team, team) // QTeam.team
                     .where(usernameEq(condition.getUsername()),
-                            teamNameEq(condition.getTeamName()),
+                            teamNameEq(condition.getTeamName(), teamIds),
                             ageLoe(condition.getAgeLoe()),
                             ageGoe(condition.getAgeGoe()))
                     .offset(pageable.getOffset())
@@ -76,6 +87,7 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
      */
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
         List<MemberTeamDto> content = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -86,14 +98,26 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageLoe(condition.getAgeLoe()),
                         ageGoe(condition.getAgeGoe()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
 
-        long total = queryFactory
+        long total = countQuery(condition, teamIds).fetchOne();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     *  카운트 쿼리 최적화
+     */
+    @Override
+    public Page<MemberTeamDto> searchPageComplexQueryCountWhenItNeeded(MemberSearchCondition condition, Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+
+        List<MemberTeamDto> content = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -101,25 +125,74 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         team.id.as("teamId"),
                         team.name.as("teamName")))
                 .from(member)
-                .leftJoin(member.team, team) // QTeam.team
-                .where(
-                    usernameEq(condition.getUsername()),
-                    teamNameEq(condition.getTeamName()),
-                    ageLoe(condition.getAgeLoe()),
-                    ageGoe(condition.getAgeGoe()))
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
+                        ageLoe(condition.getAgeLoe()),
+                        ageGoe(condition.getAgeGoe()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetchCount();
+                .fetch();
 
-        return new PageImpl<>(content, pageable, total);
+        JPAQuery<Long> countQuery = countQuery(condition, teamIds);
+
+        // countQuery::fetchOne 의 실행 여부:
+        // 페이징할 컨텐츠보다 페이징 요청 갯수가 더 많아서 (따라서 페이징할 필요가 없어짐)
+        // 페이징을 안해도 되면 getPage() 메서드가 countQuery::fetchOne 을 실행하지 않음.
+        // 마지막 페이지라서 페이징을 안해도 되는 경우에도 실행하지 않음
+
+        // 예시:
+        // 컨텐츠가 데이터베이스에 100개 쌓여 있다.
+        // where 등의 조건문을 적용했더니 컨텐츠 3개밖에 결과로 나오지 않는다.
+        // 이때 offset 은 0, limit 는 10인 상태이다.
+        // 따라서 페이징을 할 필요가 없어졌다. (0부터 10까지의 결과물을 질의했으나 3개밖에 없으므로 페이징 실행 필요가 없음)
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
     }
 
     /**
-     *  카운트 쿼리 최적화
+     *  쿼리 한 번으로 페이징 + 전체 개수: count(*) over() 윈도우 함수는 limit/offset 적용 전 전체 row 수를 각 row 에 붙여준다.
+     *  (JPQL 에는 윈도우 함수가 없으므로 CustomH2Dialect 에 count_over 함수로 등록해서 사용)
+     *  결과가 비어 있으면 전체 개수를 알 수 없으므로 기존 방식(PageableExecutionUtils + 카운트 쿼리)으로 처리.
      */
     @Override
-    public Page<MemberTeamDto> searchPageComplexQueryCountWhenItNeeded(MemberSearchCondition condition, Pageable pageable) {
+    public Page<MemberTeamDto> searchPageWithWindowCount(MemberSearchCondition condition, Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        QMemberTeamDto dto = new QMemberTeamDto(
+                member.id.as("memberId"),
+                member.username,
+                member.age,
+                team.id.as("teamId"),
+                team.name.as("teamName"));
+        NumberExpression<Long> totalCount = Expressions.numberTemplate(Long.class, "function('count_over')");
+
+        List<Tuple> rows = queryFactory
+                .select(dto, totalCount)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
+                        ageLoe(condition.getAgeLoe()),
+                        ageGoe(condition.getAgeGoe()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
 
+        if (rows.isEmpty()) {
+            return PageableExecutionUtils.getPage(List.of(), pageable, countQuery(condition, teamIds)::fetchOne);
+        }
+        List<MemberTeamDto> content = rows.stream()
+                .map(row -> row.get(dto))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, rows.get(0).get(totalCount));
+    }
+
+    /**
+     *  카운트 쿼리 없는 페이징 (무한 스크롤): size + 1 개를 조회해서 다음 페이지가 있는지만 판단
+     */
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
         List<MemberTeamDto> content = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -130,14 +203,51 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        teamNameEq(condition.getTeamName(), teamIds),
+                        ageLoe(condition.getAgeLoe()),
+                        ageGoe(condition.getAgeGoe()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content.remove(pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     *  지연 조인(deferred join) 페이징: 깊은 페이지에서 offset 으로 건너뛰는 row 를 가볍게 만든다.
+     *  1) 조건에 맞는 member.id 만 offset/limit 으로 조회 (조인/DTO 없이 인덱스만으로 처리 가능)
+     *  2) 그 id 들만 member.id in (...) 으로 DTO 조회 후 1) 의 순서대로 정렬
+     *  offset 이 클수록 searchPageComplex 보다 유리하다. 카운트는 countQuery() 를 그대로 사용.
+     */
+    @Override
+    public Page<MemberTeamDto> searchPageDeferredJoin(MemberSearchCondition condition, Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        JPAQuery<Long> idQuery = queryFactory
+                .select(member.id)
+                .from(member);
+        if (MemberSearchPredicates.teamJoinRequired(condition.getTeamName(), teamIds)) {
+            idQuery.join(member.team, team);
+        }
+        List<Long> ids = idQuery
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageLoe(condition.getAgeLoe()),
                         ageGoe(condition.getAgeGoe()))
+                .orderBy(member.id.asc())
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
                 .fetch();
 
-        JPAQuery<MemberTeamDto> countQuery = queryFactory
+        JPAQuery<Long> countQuery = countQuery(condition, teamIds);
+        if (ids.isEmpty()) {
+            return PageableExecutionUtils.getPage(List.of(), pageable, countQuery::fetchOne);
+        }
+
+        Map<Long, MemberTeamDto> rowsById = queryFactory
                 .select(new QMemberTeamDto(
                         member.id.as("memberId"),
                         member.username,
@@ -145,43 +255,107 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         team.id.as("teamId"),
                         team.name.as("teamName")))
                 .from(member)
-                .leftJoin(member.team, team) // QTeam.team
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                .leftJoin(member.team, team)
+                .where(member.id.in(ids))
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(MemberTeamDto::getMemberId, Function.identity()));
+
+        // 두 쿼리 사이에 삭제된 회원은 rowsById 에 없으므로 건너뜀
+        List<MemberTeamDto> content = ids.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    /**
+     *  카운트 전용 쿼리: 컨텐츠 쿼리와 같은 조건으로 select count(member.id) 만 질의
+     *  - DTO 프로젝션을 만들지 않음
+     *  - teamName 조건이 없거나 팀 id 로 바꿀 수 있으면 team 조인을 생략 (left join 이므로 조인해도 member 수는 그대로)
+     *    team.name 으로 비교해야 하면 inner join (팀이 없는 회원은 어차피 조건에서 걸러짐)
+     *  - offset/limit, orderBy 를 붙이지 않음
+     */
+    private JPAQuery<Long> countQuery(MemberSearchCondition condition, List<Long> teamIds) {
+        JPAQuery<Long> query = queryFactory
+                .select(member.id.count())
+                .from(member);
+        if (MemberSearchPredicates.teamJoinRequired(condition.getTeamName(), teamIds)) {
+            query.join(member.team, team); // 팀명 조건이 있으면 inner join 과 결과가 같음
+        }
+        return query
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageLoe(condition.getAgeLoe()),
-                        ageGoe(condition.getAgeGoe()))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize());
+                        ageGoe(condition.getAgeGoe()));
+    }
 
-        // countQuery::fetchCount 의 실행 여부:
-        // 페이징할 컨텐츠보다 페이징 요청 갯수가 더 많아서 (따라서 페이징할 필요가 없어짐)
-        // 페이징을 안해도 되면 getPage() 메서드가 countQuery::fetchCount 를 실행하지 않음.
-        // 마지막 페이지라서 페이징을 안해도 되는 경우에도 실행하지 않음
+    /**
+     *  키셋(seek) 페이징: offset 대신 마지막 row 의 정렬 키(age, member.id)보다 큰 row 부터 size + 1 개를 질의
+     *  offset 은 앞 페이지의 row 를 모두 읽고 버리지만, 키셋은 인덱스를 타고 바로 시작 위치로 이동하므로
+     *  몇 번째 페이지든 응답 시간이 일정하다. (대신 임의의 페이지 번호로 바로 이동할 수는 없음)
+     */
+    @Override
+    public MemberKeysetPage searchByKeyset(MemberSearchCondition condition, MemberCursor cursor, int size) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        List<MemberTeamDto> content = queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
+                        ageLoe(condition.getAgeLoe()),
+                        ageGoe(condition.getAgeGoe()),
+                        keysetAfter(cursor))
+                .orderBy(keysetOrder(cursor))
+                .limit(size + 1) // 한 개 더 가져와서 다음 페이지 존재 여부 판단
+                .fetch();
 
-        // 예시:
-        // 컨텐츠가 데이터베이스에 100개 쌓여 있다.
-        // where 등의 조건문을 적용했더니 컨텐츠 3개밖에 결과로 나오지 않는다.
-        // 이때 offset 은 0, limit 는 10인 상태이다.
-        // 따라서 페이징을 할 필요가 없어졌다. (0부터 10까지의 결과물을 질의했으나 3개밖에 없으므로 페이징 실행 필요가 없음)
+        if (content.size() <= size) {
+            return new MemberKeysetPage(content, size, null);
+        }
+        content.remove(size);
+        MemberTeamDto last = content.get(size - 1);
+        return new MemberKeysetPage(content, size, MemberCursor.after(last, cursor.isSortByAge()).encode());
+    }
+
+    private BooleanExpression keysetAfter(MemberCursor cursor) {
+        if (cursor.isFirst()) {
+            return null;
+        }
+        if (cursor.isSortByAge()) {
+            return member.age.gt(cursor.getAge())
+                    .or(member.age.eq(cursor.getAge()).and(member.id.gt(cursor.getMemberId())));
+        }
+        return member.id.gt(cursor.getMemberId());
+    }
 
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
+    private OrderSpecifier<?>[] keysetOrder(MemberCursor cursor) {
+        if (cursor.isSortByAge()) {
+            return new OrderSpecifier<?>[]{member.age.asc(), member.id.asc()};
+        }
+        return new OrderSpecifier<?>[]{member.id.asc()};
     }
 
     private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+        return MemberSearchPredicates.usernameEq(username);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? team.name.eq(teamName) : null;
+    private BooleanExpression teamNameEq(String teamName, List<Long> teamIds) {
+        return MemberSearchPredicates.teamNameEq(teamName, teamIds);
     }
 
     private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+        return MemberSearchPredicates.ageLoe(ageLoe);
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
+        return MemberSearchPredicates.ageGoe(ageGoe);
     }
 
 }
@@ -0,0 +1,54 @@
+package study.querydsl.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.MemberTeamDto;
+import study.querydsl.repository.cache.MemberSearchCache;
+import study.querydsl.repository.cache.MemberSearchKey;
+import study.querydsl.repository.cache.SingleFlight;
+import study.querydsl.repository.cache.SingleFlightStats;
+
+import java.util.List;
+
+/**
+ * /v1, /v2 검색 앞단: 같은 조건(+Pageable)으로 동시에 들어온 요청은 DB 실행 하나의 결과를 나눠 받는다.
+ * 트래픽이 몰릴 때 같은 질의가 한꺼번에 실행되는 것(thundering herd)을 막기 위함
+ * MemberTeamDto 는 수정 가능하므로 결과는 호출자마다 복사해서 준다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSearchCoalescer {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+
+    private final SingleFlight<MemberSearchKey, List<MemberTeamDto>> searchFlight =
+            new SingleFlight<>(MemberSearchCache::copyOf);
+    private final SingleFlight<MemberSearchKey, Page<MemberTeamDto>> pageFlight =
+            new SingleFlight<>(MemberSearchCoalescer::copyOf);
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return searchFlight.execute(MemberSearchKey.of(condition), () -> memberJpaRepository.search(condition));
+    }
+
+    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        return pageFlight.execute(MemberSearchKey.of(condition, pageable),
+                () -> memberRepository.searchPageSimple(condition, pageable));
+    }
+
+    public SingleFlightStats searchStats() {
+        return searchFlight.stats();
+    }
+
+    public SingleFlightStats pageStats() {
+        return pageFlight.stats();
+    }
+
+    private static Page<MemberTeamDto> copyOf(Page<MemberTeamDto> page) {
+        return new PageImpl<>(MemberSearchCache.copyOf(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+}
@@ -0,0 +1,77 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 회원 검색 조건식 (usernameEq/teamNameEq/ageLoe/ageGoe)
+ * Querydsl 검색 쿼리(MemberRepositoryImpl, MemberJpaRepository, MemberTestRepository)와
+ * MemberSearchQueryTemplates 의 JPQL 이 모두 여기서 만들어지므로, 조건을 바꿀 때는 이 클래스만 고친다.
+ * 값 대신 Param 을 넘기면 템플릿용 조건식이 된다.
+ */
+public final class MemberSearchPredicates {
+
+    private MemberSearchPredicates() {
+    }
+
+    public static BooleanExpression usernameEq(String username) {
+        return hasText(username) ? usernameEq(Expressions.constant(username)) : null;
+    }
+
+    public static BooleanExpression usernameEq(Expression<String> username) {
+        return member.username.eq(username);
+    }
+
+    /**
+     * @param teamIds 팀 이름으로 찾은 팀 id 목록 (TeamIdResolver), null 이면 team.name 으로 비교 (team 조인 필요)
+     */
+    public static BooleanExpression teamNameEq(String teamName, List<Long> teamIds) {
+        if (!hasText(teamName)) {
+            return null;
+        }
+        return teamIds != null
+                ? teamIdIn(Expressions.constant(teamIds))
+                : teamNameEq(Expressions.constant(teamName));
+    }
+
+    /**
+     * teamNameEq(teamName, teamIds) 가 team.name 을 쓰는지 (team 조인 필요)
+     */
+    public static boolean teamJoinRequired(String teamName, List<Long> teamIds) {
+        return hasText(teamName) && teamIds == null;
+    }
+
+    public static BooleanExpression teamNameEq(Expression<String> teamName) {
+        return team.name.eq(teamName);
+    }
+
+    // team 조인 없이 member.team_id 만 사용
+    public static BooleanExpression teamIdIn(Expression<? extends Collection<Long>> teamIds) {
+        return Expressions.booleanOperation(Ops.IN, member.team.id, teamIds);
+    }
+
+    public static BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? ageLoe(Expressions.constant(ageLoe)) : null;
+    }
+
+    public static BooleanExpression ageLoe(Expression<Integer> ageLoe) {
+        return member.age.loe(ageLoe);
+    }
+
+    public static BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? ageGoe(Expressions.constant(ageGoe)) : null;
+    }
+
+    public static BooleanExpression ageGoe(Expression<Integer> ageGoe) {
+        return member.age.goe(ageGoe);
+    }
+}
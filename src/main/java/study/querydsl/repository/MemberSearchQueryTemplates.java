@@ -0,0 +1,156 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.MemberTeamDto;
+import study.querydsl.entity.QMemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * search(condition) 전용 JPQL 템플릿
+ * 조건 유무 조합(shape)은 몇 가지뿐이므로 조합마다 JPQL 문자열을 처음 한 번만 만들어 두고, 이후에는 파라미터만 바인딩해서 실행한다.
+ * Querydsl 표현식 트리 생성/JPQL 직렬화가 매 호출마다 일어나지 않고,
+ * JPQL 문자열이 항상 같으므로 하이버네이트 쿼리 플랜 캐시도 항상 히트한다.
+ * JPQL 은 손으로 쓰지 않고 MemberSearchPredicates 의 조건식에 Param 을 넣어 JPQLSerializer 로 만든다. (Querydsl 검색 쿼리와 같은 조건)
+ */
+@Component
+public class MemberSearchQueryTemplates {
+
+    static final int USERNAME = 1;
+    static final int TEAM_NAME = 1 << 1;
+    static final int AGE_LOE = 1 << 2;
+    static final int AGE_GOE = 1 << 3;
+    // TEAM_NAME 대신 TeamIdResolver 로 찾은 팀 id 로 비교 (쓰기 트랜잭션 밖)
+    static final int TEAM_IDS = 1 << 4;
+
+    private static final Param<String> USERNAME_PARAM = new Param<>(String.class, "username");
+    private static final Param<String> TEAM_NAME_PARAM = new Param<>(String.class, "teamName");
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Param<List<Long>> TEAM_IDS_PARAM = new Param<>((Class) List.class, "teamIds");
+    private static final Param<Integer> AGE_LOE_PARAM = new Param<>(Integer.class, "ageLoe");
+    private static final Param<Integer> AGE_GOE_PARAM = new Param<>(Integer.class, "ageGoe");
+
+    private static final QMemberTeamDto PROJECTION =
+            new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name);
+
+    private final Template[] templates = new Template[TEAM_IDS << 1];
+    private final EntityManager em;
+    private final TeamIdResolver teamIdResolver;
+
+    public MemberSearchQueryTemplates(EntityManager em, TeamIdResolver teamIdResolver) {
+        this.em = em;
+        this.teamIdResolver = teamIdResolver;
+        for (int shape = 0; shape < templates.length; shape++) {
+            if (isValid(shape)) {
+                templates[shape] = build(shape);
+            }
+        }
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        if (teamIds != null && teamIds.isEmpty()) { // 없는 팀 이름: 질의 없이 빈 결과
+            return new ArrayList<>();
+        }
+        Template template = templates[shapeOf(condition, teamIds != null)];
+
+        Map<Param<?>, Object> values = new HashMap<>();
+        values.put(USERNAME_PARAM, condition.getUsername());
+        values.put(TEAM_NAME_PARAM, condition.getTeamName());
+        values.put(TEAM_IDS_PARAM, teamIds);
+        values.put(AGE_LOE_PARAM, condition.getAgeLoe());
+        values.put(AGE_GOE_PARAM, condition.getAgeGoe());
+
+        Query query = em.createQuery(template.jpql);
+        template.positions.forEach((param, position) -> query.setParameter(position, values.get(param)));
+
+        // 프로젝션 인자 목록(Object[])으로 조회한 뒤 생성자 호출 (Querydsl 과 같은 방식)
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(PROJECTION::newInstance)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param teamIdsResolved 팀 이름 조건을 팀 id 로 바꿨는지 (TeamIdResolver)
+     */
+    static int shapeOf(MemberSearchCondition condition, boolean teamIdsResolved) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= teamIdsResolved ? TEAM_IDS : TEAM_NAME;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        return shape;
+    }
+
+    String jpqlOf(int shape) {
+        return templates[shape].jpql;
+    }
+
+    // 팀 조건은 이름/id 중 하나만
+    static boolean isValid(int shape) {
+        return (shape & TEAM_NAME) == 0 || (shape & TEAM_IDS) == 0;
+    }
+
+    private static Template build(int shape) {
+        JPAQuery<MemberTeamDto> query = new JPAQuery<Void>()
+                .select(PROJECTION)
+                .from(member);
+        if ((shape & (TEAM_NAME | TEAM_IDS)) != 0) {
+            // 팀 조건이 있으면 팀이 없는 회원은 어차피 걸러지므로 inner join 으로 바꿔서 DB 가 조인 순서를 고를 수 있게 함
+            // (idx_team_name 으로 팀을 먼저 찾고 idx_member_team_age 로 회원 조회)
+            query.join(member.team, team);
+        } else {
+            query.leftJoin(member.team, team);
+        }
+        query.where((shape & USERNAME) != 0 ? MemberSearchPredicates.usernameEq(USERNAME_PARAM) : null,
+                (shape & TEAM_NAME) != 0 ? MemberSearchPredicates.teamNameEq(TEAM_NAME_PARAM) : null,
+                (shape & TEAM_IDS) != 0 ? MemberSearchPredicates.teamIdIn(TEAM_IDS_PARAM) : null,
+                (shape & AGE_LOE) != 0 ? MemberSearchPredicates.ageLoe(AGE_LOE_PARAM) : null,
+                (shape & AGE_GOE) != 0 ? MemberSearchPredicates.ageGoe(AGE_GOE_PARAM) : null);
+
+        // Param 은 ?1, ?2 ... 순번 파라미터로 직렬화된다.
+        JPQLSerializer serializer = new JPQLSerializer(HQLTemplates.DEFAULT);
+        serializer.serialize(query.getMetadata(), false, null);
+        Map<Param<?>, Integer> positions = new HashMap<>();
+        serializer.getConstantToLabel()
+                .forEach((param, label) -> positions.put((Param<?>) param, Integer.valueOf(label)));
+        return new Template(serializer.toString(), positions);
+    }
+
+    private static class Template {
+
+        private final String jpql;
+        private final Map<Param<?>, Integer> positions;
+
+        private Template(String jpql, Map<Param<?>, Integer> positions) {
+            this.jpql = jpql;
+            this.positions = Collections.unmodifiableMap(positions);
+        }
+    }
+}
@@ -4,39 +4,47 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
+import study.querydsl.repository.support.ChunkedBulkReport;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 import java.util.List;
 
-import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
 @Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
-    public MemberTestRepository() {
+
+    private final TeamIdResolver teamIdResolver;
+
+    public MemberTestRepository(TeamIdResolver teamIdResolver) {
         super(Member.class);
+        this.teamIdResolver = teamIdResolver;
     }
 
+    @Transactional(readOnly = true)
     public List<Member> basicSelect() {
-        return select(member)
+        return selectReadOnly(member)
                 .from(member)
                 .fetch();
     }
 
+    @Transactional(readOnly = true)
     public List<Member> basicSelectFrom() {
-        return selectFrom(member)
+        return selectFromReadOnly(member)
                 .fetch();
     }
 
     public Page<Member> searchPageByApplyPage(MemberSearchCondition condition,
                                               Pageable pageable) {
-        JPAQuery<Member> query = selectFrom(member)
-                .leftJoin(member.team, team)
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        JPAQuery<Member> query = teamJoin(selectFrom(member), condition, teamIds)
                 .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()));
         List<Member> content = getQuerydsl().applyPagination(pageable, query)
@@ -47,47 +55,101 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
 
     public Page<Member> applyPagination(MemberSearchCondition condition,
                                         Pageable pageable) {
-        return applyPagination(pageable, contentQuery -> contentQuery
-                .selectFrom(member)
-                .leftJoin(member.team, team)
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        return applyPagination(pageable, contentQuery -> teamJoin(contentQuery.selectFrom(member), condition, teamIds)
                 .where(usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        teamNameEq(condition.getTeamName(), teamIds),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())));
     }
 
     public Page<Member> applyPagination2(MemberSearchCondition condition,
                                          Pageable pageable) {
-        return applyPagination(pageable, contentQuery -> contentQuery
-                        .selectFrom(member)
-                        .leftJoin(member.team, team)
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        return applyPagination(pageable, contentQuery -> teamJoin(contentQuery.selectFrom(member), condition, teamIds)
+                        .where(usernameEq(condition.getUsername()),
+                                teamNameEq(condition.getTeamName(), teamIds),
+                                ageGoe(condition.getAgeGoe()),
+                                ageLoe(condition.getAgeLoe())),
+                countQuery -> teamJoin(countQuery.selectFrom(member), condition, teamIds)
+                        .where(usernameEq(condition.getUsername()),
+                                teamNameEq(condition.getTeamName(), teamIds),
+                                ageGoe(condition.getAgeGoe()),
+                                ageLoe(condition.getAgeLoe()))
+        );
+    }
+
+    public Slice<Member> applySlice(MemberSearchCondition condition,
+                                    Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        return applySlice(pageable, contentQuery -> teamJoin(contentQuery.selectFrom(member), condition, teamIds)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName(), teamIds),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())));
+    }
+
+    public Page<Member> applyPaginationAsync(MemberSearchCondition condition,
+                                             Pageable pageable) {
+        List<Long> teamIds = teamIdResolver.resolve(condition.getTeamName());
+        return applyPaginationAsync(pageable, contentQuery -> teamJoin(contentQuery.selectFrom(member), condition, teamIds)
                         .where(usernameEq(condition.getUsername()),
-                                teamNameEq(condition.getTeamName()),
+                                teamNameEq(condition.getTeamName(), teamIds),
                                 ageGoe(condition.getAgeGoe()),
                                 ageLoe(condition.getAgeLoe())),
-                countQuery -> countQuery
-                        .selectFrom(member)
-                        .leftJoin(member.team, team)
+                countQuery -> teamJoin(countQuery.selectFrom(member), condition, teamIds)
                         .where(usernameEq(condition.getUsername()),
-                                teamNameEq(condition.getTeamName()),
+                                teamNameEq(condition.getTeamName(), teamIds),
                                 ageGoe(condition.getAgeGoe()),
                                 ageLoe(condition.getAgeLoe()))
         );
     }
 
+    /**
+     * 나이가 ageLt 미만인 회원의 이름을 username 으로 변경 (변경된 회원만 영속성 컨텍스트에서 분리)
+     */
+    public long bulkRenameYoungerThan(int ageLt, String username) {
+        return bulkUpdate(member, member.age.lt(ageLt),
+                update -> update.set(member.username, username));
+    }
+
+    public long bulkDeleteOlderThan(int ageGt) {
+        return bulkDelete(member, member.age.gt(ageGt));
+    }
+
+    /**
+     * 대량 삭제(purge)용: chunkSize 개씩 나눠서 삭제하고 chunk 마다 커밋
+     */
+    public ChunkedBulkReport chunkedDeleteOlderThan(int ageGt, int chunkSize) {
+        return chunkedDelete(member, member.id, member.age.gt(ageGt), chunkSize);
+    }
+
+    public ChunkedBulkReport chunkedRenameYoungerThan(int ageLt, String username, int chunkSize) {
+        return chunkedUpdate(member, member.id, member.age.lt(ageLt), chunkSize,
+                update -> update.set(member.username, username));
+    }
+
     private BooleanExpression usernameEq(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+        return MemberSearchPredicates.usernameEq(username);
+    }
+
+    private BooleanExpression teamNameEq(String teamName, List<Long> teamIds) {
+        return MemberSearchPredicates.teamNameEq(teamName, teamIds);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? team.name.eq(teamName) : null;
+    // member 만 조회하므로 teamNameEq() 가 team.name 을 쓸 때만 조인
+    private <T> JPAQuery<T> teamJoin(JPAQuery<T> query, MemberSearchCondition condition, List<Long> teamIds) {
+        if (MemberSearchPredicates.teamJoinRequired(condition.getTeamName(), teamIds)) {
+            query.leftJoin(member.team, team);
+        }
+        return query;
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
-        return ageGoe == null ? null : member.age.goe(ageGoe);
+        return MemberSearchPredicates.ageGoe(ageGoe);
     }
 
     private BooleanExpression ageLoe(Integer ageLoe) {
-        return ageLoe == null ? null : member.age.loe(ageLoe);
+        return MemberSearchPredicates.ageLoe(ageLoe);
     }
 }
\ No newline at end of file
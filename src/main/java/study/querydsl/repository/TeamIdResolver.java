@@ -0,0 +1,43 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Component;
+import study.querydsl.repository.cache.TeamIdCache;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 조건의 팀 이름 -> 팀 id 목록 (MemberSearchPredicates.teamNameEq/teamJoinRequired 의 teamIds)
+ * 회원 검색 쿼리(MemberRepositoryImpl, MemberJpaRepository, MemberTestRepository)와 MemberSearchQueryTemplates 가 함께 쓴다.
+ * 컨텐츠/카운트 쿼리가 (카운트를 다른 스레드에서 실행하더라도) 같은 조건식을 쓰도록 쿼리마다 한 번만 구해서 넘긴다.
+ */
+@Component
+public class TeamIdResolver {
+
+    private final JPAQueryFactory queryFactory;
+    private final TeamIdCache teamIdCache;
+
+    public TeamIdResolver(EntityManager em, TeamIdCache teamIdCache) {
+        this.queryFactory = new JPAQueryFactory(em);
+        this.teamIdCache = teamIdCache;
+    }
+
+    /**
+     * @return 팀 id 목록 (없는 팀 이름이면 빈 목록), 쓰기 트랜잭션 안이거나 조건이 없으면 null (team.name 으로 비교)
+     */
+    public List<Long> resolve(String teamName) {
+        return hasText(teamName) ? teamIdCache.get(teamName, this::findTeamIds) : null;
+    }
+
+    private List<Long> findTeamIds(String teamName) {
+        return queryFactory
+                .select(team.id)
+                .from(team)
+                .where(team.name.eq(teamName))
+                .fetch();
+    }
+}
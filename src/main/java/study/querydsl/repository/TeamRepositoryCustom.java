@@ -0,0 +1,9 @@
+package study.querydsl.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.querydsl.dto.TeamRosterDto;
+
+public interface TeamRepositoryCustom {
+    Slice<TeamRosterDto> findRosters(Pageable pageable);
+}
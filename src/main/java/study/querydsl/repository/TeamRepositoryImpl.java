@@ -0,0 +1,76 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import study.querydsl.dto.QTeamRosterMemberDto;
+import study.querydsl.dto.TeamRosterDto;
+import study.querydsl.dto.TeamRosterMemberDto;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.querydsl.core.group.GroupBy.groupBy;
+import static com.querydsl.core.group.GroupBy.list;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final JPAQueryFactory queryFactory;
+
+    public TeamRepositoryImpl(EntityManager em) {
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    /**
+     *  팀 + 회원 목록 페이징: 컬렉션(team.members)을 페치 조인하면서 페이징하면 하이버네이트가 메모리에서 페이징하므로
+     *  1) 팀만 id 순으로 페이징해서 조회하고
+     *  2) 그 팀들의 회원을 member.team.id in (...) 한 번으로 조회해서 팀별로 묶는다.
+     *  페이지 크기와 상관없이 쿼리는 항상 두 번. (전체 개수가 필요 없으므로 count 대신 size + 1 개를 읽어 다음 페이지 여부만 판단)
+     */
+    @Override
+    public Slice<TeamRosterDto> findRosters(Pageable pageable) {
+        List<Tuple> teams = queryFactory
+                .select(team.id, team.name)
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+
+        boolean hasNext = teams.size() > pageable.getPageSize();
+        if (hasNext) {
+            teams = teams.subList(0, pageable.getPageSize());
+        }
+        if (teams.isEmpty()) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+
+        List<Long> teamIds = teams.stream()
+                .map(tuple -> tuple.get(team.id))
+                .collect(Collectors.toList());
+
+        Map<Long, List<TeamRosterMemberDto>> membersByTeamId = queryFactory
+                .from(member)
+                .where(member.team.id.in(teamIds)) // member.team_id 컬럼만 사용, team 조인 없음
+                .orderBy(member.id.asc())
+                .transform(groupBy(member.team.id).as(list(new QTeamRosterMemberDto(
+                        member.id,
+                        member.username,
+                        member.age))));
+
+        List<TeamRosterDto> content = teams.stream()
+                .map(tuple -> new TeamRosterDto(
+                        tuple.get(team.id),
+                        tuple.get(team.name),
+                        membersByTeamId.getOrDefault(tuple.get(team.id), List.of())))
+                .collect(Collectors.toList());
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,36 @@
+package study.querydsl.repository.cache;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * queryFactory.update(member)...execute() 같은 벌크 연산은 영속성 컨텍스트와 엔티티 리스너를 거치지 않으므로
+ * 실행되는 SQL 을 보고 member/team 테이블을 수정하면 검색 캐시를 비운다. (team 이면 팀 이름 -> id 캐시도)
+ */
+public class BulkUpdateInvalidationInspector implements StatementInspector {
+
+    private static final Pattern WRITE_MEMBER_OR_TEAM = Pattern.compile(
+            "^\\s*(update|delete\\s+from)\\s+(member|team)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final MemberSearchCache memberSearchCache;
+    private final TeamIdCache teamIdCache;
+
+    public BulkUpdateInvalidationInspector(MemberSearchCache memberSearchCache, TeamIdCache teamIdCache) {
+        this.memberSearchCache = memberSearchCache;
+        this.teamIdCache = teamIdCache;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Matcher matcher = WRITE_MEMBER_OR_TEAM.matcher(sql);
+        if (matcher.find()) {
+            memberSearchCache.invalidateAll();
+            if ("team".equalsIgnoreCase(matcher.group(2))) {
+                teamIdCache.invalidateAll();
+            }
+        }
+        return sql;
+    }
+}
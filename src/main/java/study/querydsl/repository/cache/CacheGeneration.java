@@ -0,0 +1,90 @@
+package study.querydsl.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 무효화 세대(generation): MemberSearchCache, TeamIdCache 공용
+ * - 값은 조회 전 세대와 함께 저장하고, 꺼낼 때 세대가 바뀌었으면 버린다.
+ *   (세대 확인과 put 사이에 무효화가 끼어들어도 예전 값이 남지 않음)
+ * - 무효화는 즉시 한 번, 트랜잭션 중이면 트랜잭션이 끝난 뒤(커밋/롤백) 한 번 더 한다.
+ *   커밋 전에 다른 스레드가 예전 데이터를 다시 올려놓는 경우를 정리하기 위함.
+ *   트랜잭션 하나에서 엔티티를 여러 번 쓰더라도 (시더의 chunk 등) 비우기/동기화 등록은 트랜잭션당 한 번만 한다.
+ */
+final class CacheGeneration {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Runnable clear;
+
+    /**
+     * @param clear 세대가 바뀔 때 캐시를 비우는 함수
+     */
+    CacheGeneration(Runnable clear) {
+        this.clear = clear;
+    }
+
+    long current() {
+        return generation.get();
+    }
+
+    /**
+     * @return 현재 세대에 저장된 값, 없거나 예전 세대 값이면 null (예전 값은 제거)
+     */
+    <K, V> V getIfCurrent(Cache<K, Stamped<V>> cache, K key) {
+        Stamped<V> stamped = cache.getIfPresent(key);
+        if (stamped == null) {
+            return null;
+        }
+        if (stamped.generation == generation.get()) {
+            return stamped.value;
+        }
+        cache.asMap().remove(key, stamped); // 저장 직전에 무효화된 값
+        return null;
+    }
+
+    /**
+     * @param before 조회 전에 읽은 세대 (current())
+     */
+    <K, V> void putIfCurrent(Cache<K, Stamped<V>> cache, K key, long before, V value) {
+        if (generation.get() == before) {
+            cache.put(key, new Stamped<>(before, value));
+        }
+    }
+
+    void invalidateAll() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            advance();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return; // 이 트랜잭션에서 이미 비웠고, 끝날 때 한 번 더 비움
+        }
+        advance();
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CacheGeneration.this);
+                advance();
+            }
+        });
+    }
+
+    private void advance() {
+        generation.incrementAndGet();
+        clear.run();
+    }
+
+    static final class Stamped<V> {
+        private final long generation;
+        private final V value;
+
+        private Stamped(long generation, V value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.repository.cache.CacheGeneration.Stamped;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.MemberTeamDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * search(condition) 결과 캐시: 같은 조건이 반복해서 들어오는 /v1/members 트래픽용
+ * - 키: 정규화한 조건 (MemberSearchKey)
+ * - 크기(maximum-size), TTL(ttl) 기준으로 제거
+ * - Member/Team 이 쓰이면 전체 무효화 (MemberSearchCacheInvalidator, BulkUpdateInvalidationInspector)
+ * 쓰기 트랜잭션 안에서는 캐시를 거치지 않는다. (아직 flush/커밋 안 된 변경을 캐시에 올리거나 놓치지 않도록)
+ */
+@Component
+public class MemberSearchCache {
+
+    private final Cache<MemberSearchKey, Stamped<List<MemberTeamDto>>> cache;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final CacheGeneration generation = new CacheGeneration(this::clear);
+
+    public MemberSearchCache(@Value("${querydsl.search-cache.maximum-size:1000}") long maximumSize,
+                             @Value("${querydsl.search-cache.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public List<MemberTeamDto> get(MemberSearchCondition condition, Supplier<List<MemberTeamDto>> loader) {
+        if (inReadWriteTransaction()) {
+            return loader.get();
+        }
+        MemberSearchKey key = MemberSearchKey.of(condition);
+        List<MemberTeamDto> cached = generation.getIfCurrent(cache, key);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        // computeIfAbsent 를 쓰지 않는 이유: 질의 중 auto flush 로 무효화가 일어나면 같은 캐시를 재귀 수정하게 됨
+        // 대신 질의 전 세대를 결과와 함께 저장한다. (CacheGeneration)
+        long before = generation.current();
+        List<MemberTeamDto> result = loader.get();
+        generation.putIfCurrent(cache, key, before, List.copyOf(copyOf(result)));
+        return result;
+    }
+
+    /**
+     * MemberTeamDto 는 setter 가 있으므로 캐시에 넣을 때와 꺼낼 때 복사한다.
+     * (한 호출자가 값을 바꿔도 캐시와 다른 호출자의 결과는 그대로, 반환 목록은 캐시 여부와 상관없이 항상 수정 가능)
+     * 동시 요청 합치기(MemberSearchCoalescer)도 같은 이유로 호출자마다 이 복사본을 돌려준다.
+     */
+    public static List<MemberTeamDto> copyOf(List<MemberTeamDto> dtos) {
+        List<MemberTeamDto> copy = new ArrayList<>(dtos.size());
+        for (MemberTeamDto dto : dtos) {
+            copy.add(new MemberTeamDto(dto.getMemberId(), dto.getUsername(), dto.getAge(),
+                    dto.getTeamId(), dto.getTeamName()));
+        }
+        return copy;
+    }
+
+    /**
+     * 즉시 비우고, 트랜잭션 중이면 트랜잭션이 끝난 뒤 한 번 더 비운다. (CacheGeneration)
+     */
+    public void invalidateAll() {
+        generation.invalidateAll();
+    }
+
+    public MemberSearchCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new MemberSearchCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                invalidationCount.get(), cache.estimatedSize());
+    }
+
+    private void clear() {
+        invalidationCount.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
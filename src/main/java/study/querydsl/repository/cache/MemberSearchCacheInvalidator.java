@@ -0,0 +1,25 @@
+package study.querydsl.repository.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member, Team 엔티티 리스너: insert/update/delete 가 실행되면 검색 캐시를 비운다.
+ * 스프링 부트가 하이버네이트에 SpringBeanContainer 를 등록하므로 @Autowired 로 주입받을 수 있다.
+ * (벌크 연산은 엔티티 리스너를 거치지 않으므로 BulkUpdateInvalidationInspector 가 처리)
+ */
+public class MemberSearchCacheInvalidator {
+
+    @Autowired
+    private MemberSearchCache memberSearchCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        memberSearchCache.invalidateAll();
+    }
+}
@@ -0,0 +1,37 @@
+package study.querydsl.repository.cache;
+
+import lombok.EqualsAndHashCode;
+import org.springframework.data.domain.Pageable;
+import study.querydsl.dto.MemberSearchCondition;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 검색 조건 정규화 키 (hasText 와 같은 기준으로 빈 문자열은 null 취급)
+ * 페이징 검색이면 Pageable(page, size, sort)도 키에 포함한다.
+ */
+@EqualsAndHashCode
+public final class MemberSearchKey {
+
+    private final String username;
+    private final String teamName;
+    private final Integer ageGoe;
+    private final Integer ageLoe;
+    private final Pageable pageable;
+
+    private MemberSearchKey(MemberSearchCondition condition, Pageable pageable) {
+        this.username = hasText(condition.getUsername()) ? condition.getUsername() : null;
+        this.teamName = hasText(condition.getTeamName()) ? condition.getTeamName() : null;
+        this.ageGoe = condition.getAgeGoe();
+        this.ageLoe = condition.getAgeLoe();
+        this.pageable = pageable;
+    }
+
+    public static MemberSearchKey of(MemberSearchCondition condition) {
+        return new MemberSearchKey(condition, null);
+    }
+
+    public static MemberSearchKey of(MemberSearchCondition condition, Pageable pageable) {
+        return new MemberSearchKey(condition, pageable);
+    }
+}
@@ -0,0 +1,82 @@
+package study.querydsl.repository.cache;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 실행 하나로 합친다. (single-flight)
+ * 먼저 들어온 호출이 실제로 실행하고, 실행 중에 들어온 같은 키의 호출은 그 결과(또는 예외)를 함께 받는다.
+ * 실행이 끝나면 바로 맵에서 빠지므로 결과를 보관하지 않는다. (캐시가 아니라서 오래된 값이 남지 않음)
+ * 쓰기 트랜잭션 안에서는 합치지 않는다. (아직 커밋 안 된 변경이 보이는 결과를 다른 요청과 공유하지 않도록)
+ * 결과가 수정 가능한 객체이면 copier 를 넘긴다. 호출자마다 복사본을 받으므로 한 호출자가 결과를 바꿔도 다른 호출자에게 보이지 않는다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executionCount = new AtomicLong();
+    private final AtomicLong sharedCount = new AtomicLong();
+    private final UnaryOperator<V> copier;
+
+    // 결과를 그대로 공유 (불변 값용)
+    public SingleFlight() {
+        this(UnaryOperator.identity());
+    }
+
+    public SingleFlight(UnaryOperator<V> copier) {
+        this.copier = copier;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        if (inReadWriteTransaction()) {
+            return loader.get();
+        }
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            sharedCount.incrementAndGet();
+            return copier.apply(join(running));
+        }
+        executionCount.incrementAndGet();
+        try {
+            V result = loader.get();
+            mine.complete(copier.apply(result)); // 실행한 호출자가 돌려받은 결과를 바꿔도 합류한 호출자에게 영향 없도록 따로 복사
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public SingleFlightStats stats() {
+        return new SingleFlightStats(executionCount.get(), sharedCount.get(), inFlight.size());
+    }
+
+    private V join(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
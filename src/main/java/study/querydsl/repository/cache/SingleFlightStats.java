@@ -0,0 +1,13 @@
+package study.querydsl.repository.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class SingleFlightStats {
+
+    private final long executionCount; // 실제 DB 실행 횟수
+    private final long sharedCount;    // 실행 중인 결과를 공유받은 호출 수
+    private final int inFlight;
+}
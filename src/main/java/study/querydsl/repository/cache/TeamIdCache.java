@@ -0,0 +1,78 @@
+package study.querydsl.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.repository.cache.CacheGeneration.Stamped;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 팀 이름 -> 팀 id 캐시: teamName 조건을 team.name = ? (team 조인 필요) 대신 member.team.id in (?) 로 바꾸기 위함
+ * 팀은 몇 개 안 되고 이름도 거의 바뀌지 않는다. 이름이 유일하지 않으므로 id 목록을 저장 (없는 이름은 빈 목록)
+ * - Team 이 쓰이면 전체 무효화 (TeamIdCacheInvalidator, BulkUpdateInvalidationInspector)
+ * - 무효화는 이 JVM 의 하이버네이트를 거친 쓰기만 감지하므로 TTL(ttl) 로도 제거한다.
+ *   (다른 인스턴스, 마이그레이션, 직접 실행한 SQL 로 추가/변경된 팀이 없는 이름(빈 목록)으로 남아 계속 빈 결과가 되지 않도록)
+ * - 쓰기 트랜잭션 안에서는 쓰지 않는다. (아직 커밋 안 된 팀이 보이거나 빠질 수 있으므로 team.name 비교로 처리)
+ * 하이버네이트 설정(StatementInspector)에서도 쓰는 빈이라 EntityManager 를 직접 받지 않고 조회 함수를 넘겨받는다.
+ */
+@Component
+public class TeamIdCache {
+
+    private final Cache<String, Stamped<List<Long>>> cache;
+    private final CacheGeneration generation = new CacheGeneration(this::clear);
+
+    public TeamIdCache(@Value("${querydsl.team-id-cache.maximum-size:10000}") long maximumSize,
+                       @Value("${querydsl.team-id-cache.ttl:60s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize) // 요청 파라미터로 들어온 없는 이름도 저장하므로 크기 제한
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 쓰기 트랜잭션 밖인지 (get 이 null 을 돌려주지 않는지)
+     */
+    public boolean isAvailable() {
+        return !(TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * @param loader 팀 이름으로 팀 id 목록 조회
+     * @return 팀 id 목록, 쓰기 트랜잭션 안이면 null
+     */
+    public List<Long> get(String teamName, Function<String, List<Long>> loader) {
+        if (!isAvailable()) {
+            return null;
+        }
+        List<Long> cached = generation.getIfCurrent(cache, teamName);
+        if (cached != null) {
+            return cached;
+        }
+        long before = generation.current();
+        List<Long> teamIds = List.copyOf(loader.apply(teamName));
+        generation.putIfCurrent(cache, teamName, before, teamIds);
+        return teamIds;
+    }
+
+    /**
+     * MemberSearchCache 와 같이 트랜잭션당 한 번 비우고 끝난 뒤 한 번 더 비운다. (CacheGeneration)
+     */
+    public void invalidateAll() {
+        generation.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private void clear() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,23 @@
+package study.querydsl.repository.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Team 엔티티 리스너: 팀이 추가/변경/삭제되면 팀 이름 -> id 캐시를 비운다.
+ */
+public class TeamIdCacheInvalidator {
+
+    @Autowired
+    private TeamIdCache teamIdCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        teamIdCache.invalidateAll();
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.repository.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ChunkedBulkReport {
+
+    private final long rows;
+    private final int chunks;
+    private final long elapsedMillis;
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+}
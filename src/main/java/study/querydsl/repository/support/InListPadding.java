@@ -0,0 +1,65 @@
+package study.querydsl.repository.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IN 절 파라미터 패딩: in (?, ?, ?) 의 파라미터 개수마다 하이버네이트 쿼리 플랜(과 DB 의 prepared statement)이 따로 생기므로
+ * 목록 길이를 정해진 크기(2의 거듭제곱)로 맞춘다. 빈 자리는 마지막 값을 반복해서 채운다. (결과에는 영향 없음)
+ */
+public final class InListPadding {
+
+    private InListPadding() {
+    }
+
+    public static int nextPowerOfTwo(int size) {
+        if (size <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+
+    public static <T> List<T> padToPowerOfTwo(List<T> values) {
+        return pad(values, nextPowerOfTwo(values.size()));
+    }
+
+    /**
+     * @param size values.size() 이상
+     */
+    public static <T> List<T> pad(List<T> values, int size) {
+        if (values.isEmpty() || values.size() >= size) {
+            return values;
+        }
+        List<T> padded = new ArrayList<>(size);
+        padded.addAll(values);
+        T last = values.get(values.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * buckets(오름차순) 중 values.size() 이상인 가장 작은 크기로 패딩. 마지막 bucket 보다 크면 그대로 둔다.
+     */
+    public static <T> List<T> padToBucket(List<T> values, int... buckets) {
+        for (int bucket : buckets) {
+            if (values.size() <= bucket) {
+                return pad(values, bucket);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * chunkSize 씩 나눈다. (마지막 조각은 더 작을 수 있음)
+     * chunkSize 를 2의 거듭제곱으로 잡으면 조각을 padToPowerOfTwo 로 패딩해도 chunkSize 를 넘지 않는다.
+     */
+    public static <T> List<List<T>> chunk(List<T> values, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            chunks.add(values.subList(from, Math.min(from + chunkSize, values.size())));
+        }
+        return chunks;
+    }
+}
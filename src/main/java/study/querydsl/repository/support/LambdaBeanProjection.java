@@ -0,0 +1,162 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpressionBase;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Visitor;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Projections.bean() / Projections.fields() 대용: 리플렉션 없이 DTO 를 만든다.
+ * Projections.bean 은 row 마다 Method.invoke (fields 는 Field.set) 로 값을 넣지만,
+ * 여기서는 처음 한 번 LambdaMetafactory 로 기본 생성자/setter 를 직접 호출하는 람다를 만들어 두고 재사용한다.
+ * (DTO 에 public 기본 생성자와 public setter 가 있어야 함. 프로퍼티 이름은 path 이름 또는 as("별칭"))
+ *
+ * 예: select(LambdaBeanProjection.bean(UserDTO.class, member.username.as("name"), member.age.as("userAge")))
+ */
+public class LambdaBeanProjection<T> extends FactoryExpressionBase<T> {
+
+    // DTO 클래스 -> (프로퍼티 이름 목록 -> 람다)
+    // ClassValue 는 값을 Class 객체에 붙여 두므로, static Map 과 달리 DTO 의 클래스로더(재배포/devtools 재시작)를 붙잡지 않는다.
+    private static final ClassValue<Map<List<String>, Accessors<?>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<List<String>, Accessors<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final List<Expression<?>> args;
+    private final Accessors<T> accessors;
+
+    @SuppressWarnings("unchecked")
+    private LambdaBeanProjection(Class<? extends T> type, Expression<?>... args) {
+        super(type);
+        this.args = List.of(args);
+        String[] names = Arrays.stream(args).map(LambdaBeanProjection::propertyName).toArray(String[]::new);
+        this.accessors = (Accessors<T>) ACCESSORS.get(type).computeIfAbsent(List.of(names),
+                key -> Accessors.create(type, names));
+    }
+
+    public static <T> LambdaBeanProjection<T> bean(Class<? extends T> type, Expression<?>... args) {
+        return new LambdaBeanProjection<>(type, args);
+    }
+
+    @Override
+    public T newInstance(Object... values) {
+        return accessors.newInstance(values);
+    }
+
+    @Override
+    public List<Expression<?>> getArgs() {
+        return args;
+    }
+
+    @Override
+    public <R, C> R accept(Visitor<R, C> v, C context) {
+        return v.visit(this, context);
+    }
+
+    // hashCode 는 ExpressionBase 의 final 구현(HashCodeVisitor: 타입 + args)을 그대로 쓴다. equals 와 같은 기준
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof LambdaBeanProjection)) {
+            return false;
+        }
+        LambdaBeanProjection<?> other = (LambdaBeanProjection<?>) obj;
+        return getType().equals(other.getType()) && args.equals(other.args);
+    }
+
+    private static String propertyName(Expression<?> expr) {
+        if (expr instanceof Path) {
+            return ((Path<?>) expr).getMetadata().getName();
+        }
+        if (expr instanceof Operation && ((Operation<?>) expr).getOperator() == Ops.ALIAS) {
+            return ((Path<?>) ((Operation<?>) expr).getArg(1)).getMetadata().getName();
+        }
+        throw new IllegalArgumentException("Unsupported expression (use a path or as(\"property\")): " + expr);
+    }
+
+    /**
+     * 생성자 람다 + 프로퍼티 순서대로의 setter 람다
+     */
+    private static final class Accessors<T> {
+        private final Supplier<T> constructor;
+        private final BiConsumer<T, Object>[] setters;
+        private final boolean[] primitive;
+
+        private Accessors(Supplier<T> constructor, BiConsumer<T, Object>[] setters, boolean[] primitive) {
+            this.constructor = constructor;
+            this.setters = setters;
+            this.primitive = primitive;
+        }
+
+        T newInstance(Object[] values) {
+            T bean = constructor.get();
+            for (int i = 0; i < setters.length; i++) {
+                if (values[i] != null || !primitive[i]) { // null 은 primitive 프로퍼티에 넣지 않음 (기본값 유지)
+                    setters[i].accept(bean, values[i]);
+                }
+            }
+            return bean;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Accessors<T> create(Class<? extends T> type, String[] names) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                Map<String, PropertyDescriptor> properties = new ConcurrentHashMap<>();
+                for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                    properties.put(descriptor.getName(), descriptor);
+                }
+
+                MethodHandle constructorHandle = lookup.findConstructor(type, MethodType.methodType(void.class));
+                CallSite constructorSite = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        constructorHandle, MethodType.methodType(type));
+                Supplier<T> constructor = (Supplier<T>) constructorSite.getTarget().invoke();
+
+                BiConsumer<T, Object>[] setters = new BiConsumer[names.length];
+                boolean[] primitive = new boolean[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    PropertyDescriptor descriptor = properties.get(names[i]);
+                    if (descriptor == null || descriptor.getWriteMethod() == null) {
+                        throw new IllegalArgumentException("No setter for property '" + names[i] + "' in " + type.getName());
+                    }
+                    Class<?> propertyType = descriptor.getPropertyType();
+                    MethodHandle setterHandle = lookup.unreflect(descriptor.getWriteMethod());
+                    CallSite setterSite = LambdaMetafactory.metafactory(lookup, "accept",
+                            MethodType.methodType(BiConsumer.class),
+                            MethodType.methodType(void.class, Object.class, Object.class),
+                            setterHandle,
+                            MethodType.methodType(void.class, type, MethodType.methodType(propertyType).wrap().returnType()));
+                    setters[i] = (BiConsumer<T, Object>) setterSite.getTarget().invoke();
+                    primitive[i] = propertyType.isPrimitive();
+                }
+                return new Accessors<>(constructor, setters, primitive);
+            } catch (IntrospectionException | ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot create projection for " + type.getName(), e);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot create projection for " + type.getName(), e);
+            }
+        }
+    }
+}
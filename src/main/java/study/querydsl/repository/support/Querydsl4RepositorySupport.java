@@ -2,32 +2,65 @@ package study.querydsl.repository.support;
 
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPADeleteClause;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.QueryHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.querydsl.SimpleEntityPathResolver;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 
+@Slf4j
 @Repository
 public abstract class Querydsl4RepositorySupport {
+    private static final int BULK_ID_CHUNK_SIZE = 128; // InListPadding.chunk 참고
+
     private final Class domainClass;
     private Querydsl querydsl;
     private EntityManager entityManager;
     private JPAQueryFactory queryFactory;
+    private EntityManagerFactory entityManagerFactory;
+    private Executor countQueryExecutor;
+    private TransactionTemplate chunkTransaction;
 
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
@@ -46,11 +79,30 @@ public abstract class Querydsl4RepositorySupport {
         this.queryFactory = new JPAQueryFactory(entityManager);
     }
 
+    @Autowired
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Autowired
+    public void setCountQueryExecutor(@Qualifier("countQueryExecutor") Executor countQueryExecutor) {
+        this.countQueryExecutor = countQueryExecutor;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     @PostConstruct
     public void validate() {
         Assert.notNull(entityManager, "EntityManager must not be null!");
         Assert.notNull(querydsl, "Querydsl must not be null!");
         Assert.notNull(queryFactory, "QueryFactory must not be null!");
+        Assert.notNull(entityManagerFactory, "EntityManagerFactory must not be null!");
+        Assert.notNull(countQueryExecutor, "CountQueryExecutor must not be null!");
+        Assert.notNull(chunkTransaction, "TransactionManager must not be null!");
     }
 
     protected JPAQueryFactory getQueryFactory() {
@@ -73,6 +125,29 @@ public abstract class Querydsl4RepositorySupport {
         return getQueryFactory().selectFrom(from);
     }
 
+    /**
+     * 읽기 전용 조회: 조회한 엔티티의 스냅샷을 만들지 않아(변경 감지 안 함) 메모리/flush 비용이 줄어든다.
+     * 조회한 엔티티를 수정해도 DB 에 반영되지 않으므로 화면 출력/응답용 조회에만 사용.
+     * 메서드에 @Transactional(readOnly = true) 를 함께 붙이면 스프링이 세션 전체를 읽기 전용, FlushMode.MANUAL 로 연다.
+     */
+    protected <T> JPAQuery<T> selectReadOnly(Expression<T> expr) {
+        return readOnly(select(expr));
+    }
+
+    protected <T> JPAQuery<T> selectFromReadOnly(EntityPath<T> from) {
+        return readOnly(selectFrom(from));
+    }
+
+    private <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        query.setHint(QueryHints.HINT_READONLY, true);
+        // 쓰기 트랜잭션에 참여한 경우에는 아직 flush 안 된 변경을 조회할 수 있도록 auto flush 를 유지
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            query.setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+        }
+        return query;
+    }
+
     protected <T> Page<T> applyPagination(Pageable pageable,
                                           Function<JPAQueryFactory, JPAQuery> contentQuery) {
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
@@ -88,4 +163,263 @@ public abstract class Querydsl4RepositorySupport {
         JPAQuery countResult = countQuery.apply(getQueryFactory());
         return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
     }
+
+    /**
+     * 벌크 수정: update 실행 후 영속성 컨텍스트 전체를 비우는(em.clear()) 대신
+     * 이번 update 대상인 엔티티만 영속성 컨텍스트에서 분리(detach)한다.
+     * 나머지 엔티티는 1차 캐시에 그대로 남으므로 긴 배치 트랜잭션에서 다시 읽어올 필요가 없다.
+     * 분리된 엔티티는 다음 조회 시 DB 의 최신 값으로 다시 읽힌다.
+     */
+    protected long bulkUpdate(EntityPath<?> path, Predicate where,
+                              Function<JPAUpdateClause, JPAUpdateClause> set) {
+        List<Object> affected = beforeBulk(path, where);
+        long count = set.apply(getQueryFactory().update(path).where(where)).execute();
+        afterBulk(path, affected);
+        return count;
+    }
+
+    /**
+     * 벌크 삭제: bulkUpdate() 와 같이 삭제 대상 엔티티만 영속성 컨텍스트에서 분리한다.
+     */
+    protected long bulkDelete(EntityPath<?> path, Predicate where) {
+        List<Object> affected = beforeBulk(path, where);
+        JPADeleteClause delete = getQueryFactory().delete(path).where(where);
+        long count = delete.execute();
+        afterBulk(path, affected);
+        return count;
+    }
+
+    /**
+     * 나눠서 하는 벌크 수정: 대상 row 를 id 순으로 chunkSize 개씩 끊어서 chunk 마다 별도 트랜잭션으로 커밋한다.
+     * 한 문장으로 큰 테이블을 수정할 때처럼 락/언두가 오래 잡혀 있지 않아 동시에 실행되는 조회를 막지 않는다.
+     * 주의: chunk 마다 커밋되므로 전체가 하나의 트랜잭션이 아니다. (중간에 실패하면 앞 chunk 는 반영된 상태)
+     * 쓰기 트랜잭션 안에서는 호출할 수 없다. (chunk 트랜잭션이 다른 커넥션을 쓰므로 바깥 트랜잭션이 잡은 row 락을 기다리며 멈추고,
+     * 바깥 영속성 컨텍스트는 chunk 에서 커밋된 변경을 모른다)
+     */
+    protected ChunkedBulkReport chunkedUpdate(EntityPath<?> path, NumberPath<Long> idPath, Predicate where,
+                                              int chunkSize, Function<JPAUpdateClause, JPAUpdateClause> set) {
+        return inChunks(path, idPath, where, chunkSize,
+                ids -> set.apply(getQueryFactory().update(path).where(where, idPath.in(ids))).execute());
+    }
+
+    protected ChunkedBulkReport chunkedDelete(EntityPath<?> path, NumberPath<Long> idPath, Predicate where,
+                                              int chunkSize) {
+        return inChunks(path, idPath, where, chunkSize,
+                ids -> getQueryFactory().delete(path).where(where, idPath.in(ids)).execute());
+    }
+
+    /**
+     * 마지막으로 처리한 id 보다 큰 대상 id 를 chunkSize 개 조회 -> 그 id 들만 수정/삭제 -> 커밋, 대상이 없을 때까지 반복
+     * (id 기준으로 진행하므로 수정 후에도 조건에 맞는 row 를 다시 처리하지 않음)
+     * id 조회와 수정/삭제를 같은 chunk 트랜잭션에서 실행하고, 수정/삭제에도 원래 조건을 다시 건다.
+     * (조회 후 다른 트랜잭션이 커밋해서 조건에 맞지 않게 된 row 는 건드리지 않음)
+     */
+    private ChunkedBulkReport inChunks(EntityPath<?> path, NumberPath<Long> idPath, Predicate where, int chunkSize,
+                                       Function<List<Long>, Long> execute) {
+        Assert.isTrue(chunkSize > 0, "chunkSize must be greater than zero");
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new IllegalStateException("Chunked bulk operations commit per chunk and must not run inside a read-write transaction");
+        }
+        long start = System.nanoTime();
+        long rows = 0;
+        int chunks = 0;
+        Long lastId = null;
+        while (true) {
+            Long after = lastId;
+            ChunkResult chunk = chunkTransaction.execute(status -> {
+                List<Long> ids = getQueryFactory()
+                        .select(idPath)
+                        .from(path)
+                        .where(where, after == null ? null : idPath.gt(after))
+                        .orderBy(idPath.asc())
+                        .limit(chunkSize)
+                        .fetch();
+                return ids.isEmpty() ? null : new ChunkResult(ids.get(ids.size() - 1), execute.apply(ids));
+            });
+            if (chunk == null) {
+                break;
+            }
+            rows += chunk.affected;
+            chunks++;
+            lastId = chunk.lastId;
+            log.debug("chunked bulk {}: chunk {} done, {} rows, last id {}", path, chunks, chunk.affected, lastId);
+        }
+        ChunkedBulkReport report = new ChunkedBulkReport(rows, chunks, (System.nanoTime() - start) / 1_000_000);
+        log.info("chunked bulk {} finished: {} rows in {} chunks, {} ms, {} rows/sec", path, report.getRows(),
+                report.getChunks(), report.getElapsedMillis(), (long) report.rowsPerSecond());
+        return report;
+    }
+
+    private static class ChunkResult {
+        private final long lastId;
+        private final long affected;
+
+        ChunkResult(long lastId, Long affected) {
+            this.lastId = lastId;
+            this.affected = affected == null ? 0 : affected;
+        }
+    }
+
+    /**
+     * 1) 쓰기 지연 중인 변경을 flush (벌크 연산이 최신 값을 기준으로 실행되고, 분리될 엔티티의 변경도 잃지 않도록)
+     * 2) 영속성 컨텍스트에 있는 같은 타입 엔티티 중 벌크 연산 조건에 맞는 것을 찾는다.
+     *    (관리 중인 엔티티의 id 로만 조회하므로 테이블 전체를 읽지 않음, 관리 중인 엔티티가 없으면 조회 안 함)
+     */
+    private List<Object> beforeBulk(EntityPath<?> path, Predicate where) {
+        EntityManager em = getEntityManager();
+        if (!em.isJoinedToTransaction()) {
+            return List.of();
+        }
+        em.flush();
+
+        Map<Object, Object> managedById = new HashMap<>();
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+            if (path.getType().isInstance(entry.getKey())) {
+                managedById.put(entry.getValue().getId(), entry.getKey());
+            }
+        }
+        if (managedById.isEmpty()) {
+            return List.of();
+        }
+
+        String idAttribute = JpaEntityInformationSupport.getEntityInformation(path.getType(), em)
+                .getIdAttribute().getName();
+        PathBuilder<Object> idPath = new PathBuilder<>(Object.class, path.getMetadata()).get(idAttribute);
+        // 관리 중인 엔티티가 많아도 IN 절이 한없이 길어지지 않도록 나누고, 플랜 캐시가 커지지 않도록 2의 거듭제곱으로 패딩
+        List<Object> affected = new ArrayList<>();
+        for (List<Object> chunk : InListPadding.chunk(new ArrayList<>(managedById.keySet()), BULK_ID_CHUNK_SIZE)) {
+            List<Object> affectedIds = getQueryFactory()
+                    .select(idPath)
+                    .from(path)
+                    .where(where, idPath.in(InListPadding.padToPowerOfTwo(chunk)))
+                    .fetch();
+            for (Object id : affectedIds) {
+                affected.add(managedById.get(id));
+            }
+        }
+        return affected;
+    }
+
+    private void afterBulk(EntityPath<?> path, List<Object> affected) {
+        EntityManager em = getEntityManager();
+        for (Object entity : affected) {
+            em.detach(entity);
+        }
+        // 2차 캐시를 쓰는 경우 해당 타입 캐시도 비움 (하이버네이트도 벌크 연산 시 비우지만 명시적으로)
+        em.getEntityManagerFactory().getCache().evict(path.getType());
+    }
+
+    /**
+     * 카운트 없는 페이징 (무한 스크롤용): size + 1 개를 조회해서 다음 페이지가 있는지만 판단한다.
+     */
+    protected <T> Slice<T> applySlice(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
+        JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+        if (pageable.isUnpaged()) {
+            List<T> content = jpaQuery.fetch();
+            return new SliceImpl<>(content, pageable, false);
+        }
+        JPQLQuery<T> sorted = getQuerydsl().applySorting(pageable.getSort(), jpaQuery);
+        List<T> content = sorted
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1)
+                .fetch();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, pageable.getPageSize()));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 카운트 쿼리를 별도 스레드, 별도 읽기 전용 EntityManager(커넥션)에서 컨텐츠 쿼리와 동시에 실행한다.
+     * 응답 시간이 (컨텐츠 + 카운트) 가 아니라 max(컨텐츠, 카운트) 에 가까워진다.
+     * - getPage() 가 카운트를 쓰지 않았거나(마지막 페이지 등) 컨텐츠 쿼리가 실패하면 카운트를 취소한다.
+     *   (아직 대기 중이면 실행하지 않고, 실행 중이면 JDBC statement 를 cancel)
+     * - 카운트 스레드풀/큐가 가득 차면 다른 커넥션을 더 잡지 않고 요청 스레드에서 순서대로 실행한다.
+     *   (요청 스레드가 커넥션을 쥔 채 두 번째 커넥션을 기다리다 커넥션 풀이 고갈되지 않도록, CountQueryExecutorConfig 참고)
+     * 주의: 카운트 쿼리는 현재 트랜잭션 밖에서 실행되므로 아직 커밋되지 않은 변경은 total 에 반영되지 않는다.
+     */
+    protected <T> Page<T> applyPaginationAsync(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory, JPAQuery> countQuery) {
+        AsyncCount count = new AsyncCount(countQuery);
+        try {
+            JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
+            List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
+            return PageableExecutionUtils.getPage(content, pageable, count::join);
+        } finally {
+            count.cancel(); // 이미 끝났으면 아무 일도 없음
+        }
+    }
+
+    private final class AsyncCount {
+        private final Function<JPAQueryFactory, JPAQuery> countQuery;
+        private final AtomicReference<Session> running = new AtomicReference<>();
+        private final CompletableFuture<Long> result;
+        private volatile boolean cancelled;
+
+        AsyncCount(Function<JPAQueryFactory, JPAQuery> countQuery) {
+            this.countQuery = countQuery;
+            CompletableFuture<Long> submitted;
+            try {
+                submitted = CompletableFuture.supplyAsync(this::fetchReadOnly, countQueryExecutor);
+            } catch (RejectedExecutionException e) {
+                log.debug("count query executor saturated, counting on the request thread");
+                submitted = null;
+            }
+            this.result = submitted;
+        }
+
+        long join() {
+            if (result == null) {
+                return countQuery.apply(getQueryFactory()).fetchCount();
+            }
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for count query", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException("Count query failed", e.getCause());
+            }
+        }
+
+        void cancel() {
+            if (result == null || result.isDone()) {
+                return;
+            }
+            cancelled = true; // running 을 읽기 전에 표시 (fetchReadOnly 와 반대 순서)
+            result.cancel(false); // 아직 시작 전이면 실행되지 않음
+            Session session = running.get();
+            if (session != null) {
+                try {
+                    session.cancelQuery();
+                } catch (RuntimeException e) {
+                    log.debug("count query cancel failed", e);
+                }
+            }
+        }
+
+        private long fetchReadOnly() {
+            EntityManager readOnlyEntityManager = entityManagerFactory.createEntityManager();
+            Session session = readOnlyEntityManager.unwrap(Session.class);
+            running.set(session);
+            try {
+                // 시작 후 running 을 알리기 전에 cancel 됐으면 cancel() 은 세션을 보지 못했으므로 여기서 멈춘다.
+                // (running 을 먼저 알리고 확인하므로 cancel() 과 둘 중 하나는 반드시 상대를 봄)
+                if (cancelled) {
+                    return 0L;
+                }
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+                return countQuery.apply(new JPAQueryFactory(readOnlyEntityManager)).fetchCount();
+            } finally {
+                running.set(null);
+                readOnlyEntityManager.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package study.querydsl.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 대량 샘플 데이터 생성기
+ * - 회원을 chunkSize 개씩 나눠서 트랜잭션 하나로 커밋 (트랜잭션/언두 크기가 전체 row 수와 무관)
+ * - chunk 마다 flush/clear 로 1차 캐시를 비움 (insert 는 hibernate.jdbc.batch_size 단위로 JDBC 배치 전송)
+ * - progressInterval 마다 진행 상황과 처리량(rows/sec) 로그
+ */
+@Slf4j
+@Component
+public class MemberSeeder {
+
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final SeedProperties defaultProperties;
+
+    public MemberSeeder(EntityManager em, PlatformTransactionManager transactionManager,
+                        SeedProperties defaultProperties) {
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+        defaultProperties.validate(); // 설정이 잘못됐으면 빈 생성(애플리케이션 시작)에서 실패
+        this.defaultProperties = defaultProperties;
+    }
+
+    public SeedReport seed() {
+        return seed(defaultProperties);
+    }
+
+    public SeedReport seed(SeedProperties properties) {
+        properties.validate();
+        long start = System.nanoTime();
+        Long[] teamIds = tx.execute(status -> persistTeams(properties.getTeams()));
+        TeamPicker picker = new TeamPicker(teamIds.length, properties.getTeamSkew(), properties.getRandomSeed());
+
+        long total = properties.getMembers();
+        long nextProgress = properties.getProgressInterval();
+        for (long from = 0; from < total; from += properties.getChunkSize()) {
+            long to = Math.min(from + properties.getChunkSize(), total);
+            long chunkFrom = from;
+            tx.executeWithoutResult(status -> persistMembers(chunkFrom, to, teamIds, picker));
+            if (to >= nextProgress || to == total) {
+                logProgress(to, total, start);
+                nextProgress += properties.getProgressInterval();
+            }
+        }
+
+        SeedReport report = new SeedReport(teamIds.length, total, elapsedMillis(start));
+        log.info("seed finished: teams={}, members={}, {} ms, {} rows/sec",
+                report.getTeams(), report.getMembers(), report.getElapsedMillis(), (long) report.rowsPerSecond());
+        return report;
+    }
+
+    private Long[] persistTeams(int count) {
+        Long[] ids = new Long[count];
+        for (int i = 0; i < count; i++) {
+            Team team = new Team(i < 26 ? "team" + (char) ('A' + i) : "team" + i); // teamA ~ teamZ, team26 ...
+            em.persist(team);
+            ids[i] = team.getId();
+        }
+        return ids;
+    }
+
+    private void persistMembers(long from, long to, Long[] teamIds, TeamPicker picker) {
+        // chunk 안에서 같은 팀은 한 번만 읽어옴 (clear 후에는 다시 읽어야 함)
+        Team[] teams = new Team[teamIds.length];
+        for (long i = from; i < to; i++) {
+            if (teams.length == 0) {
+                em.persist(new Member("member" + i, (int) (i % 100)));
+                continue;
+            }
+            int index = picker.pick(i);
+            if (teams[index] == null) {
+                teams[index] = em.find(Team.class, teamIds[index]);
+            }
+            em.persist(new Member("member" + i, (int) (i % 100), teams[index]));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private void logProgress(long done, long total, long start) {
+        long elapsed = elapsedMillis(start);
+        log.info("seed progress: {}/{} members, {} ms, {} rows/sec",
+                done, total, elapsed, elapsed == 0 ? done : done * 1000 / elapsed);
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * 회원 -> 팀 배정. skew 가 0 이면 기존 InitMember 처럼 i % teams,
+     * 아니면 zipf 분포(가중치 1/(k+1)^skew)로 앞쪽 팀에 쏠리게 배정
+     */
+    static class TeamPicker {
+        private final int teams;
+        private final double[] cumulative;
+        private final Random random;
+
+        TeamPicker(int teams, double skew, long seed) {
+            this.teams = teams;
+            this.random = new Random(seed);
+            if (skew <= 0) {
+                this.cumulative = null;
+                return;
+            }
+            this.cumulative = new double[teams];
+            double sum = 0;
+            for (int k = 0; k < teams; k++) {
+                sum += 1 / Math.pow(k + 1, skew);
+                cumulative[k] = sum;
+            }
+            for (int k = 0; k < teams; k++) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int pick(long i) {
+            if (cumulative == null) {
+                return (int) (i % teams);
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, teams - 1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package study.querydsl.seed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 샘플 데이터 생성 설정 (application.yml 의 seed.*)
+ */
+@Getter @Setter
+@Component
+@ConfigurationProperties(prefix = "seed")
+public class SeedProperties {
+
+    // 생성할 팀, 회원 수
+    private int teams = 2;
+    private long members = 100;
+
+    // 팀 쏠림 정도: 0 이면 회원을 팀에 돌아가며 균등 배정, 클수록 앞쪽 팀에 회원이 몰림 (zipf 지수)
+    private double teamSkew = 0;
+
+    // 이 row 수마다 flush/clear 후 커밋 (hibernate.jdbc.batch_size 의 배수로 설정)
+    private int chunkSize = 1_000;
+
+    // 이 row 수마다 진행 상황/처리량 로그
+    private long progressInterval = 100_000;
+
+    // 팀 쏠림 난수 시드 (같은 값이면 같은 데이터)
+    private long randomSeed = 42;
+
+    /**
+     * chunkSize 가 0 이하이면 생성 루프가 끝나지 않으므로 (InitMember 라면 애플리케이션 시작이 멈춤) 시작 전에 확인한다.
+     */
+    public void validate() {
+        if (teams < 0 || members < 0) {
+            throw new IllegalArgumentException("seed.teams and seed.members must not be negative");
+        }
+        if (chunkSize < 1 || progressInterval < 1) {
+            throw new IllegalArgumentException("seed.chunk-size and seed.progress-interval must be greater than zero");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.seed;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SeedReport {
+
+    private final int teams;
+    private final long members;
+    private final long elapsedMillis;
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? members : members * 1000.0 / elapsedMillis;
+    }
+}
@@ -22,6 +22,8 @@ import study.querydsl.entity.Member;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.QTeam;
 import study.querydsl.entity.Team;
+import study.querydsl.repository.support.LambdaBeanProjection;
+import study.querydsl.support.ExpectQueries;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -426,6 +428,7 @@ public class QuerydslBasicTest {
      */
     @Test
     @Transactional
+    @ExpectQueries(select = 2, exact = true) // 회원 조회 + 팀 지연 로딩
     public void fetchJoinNo() {
         em.flush();
         em.clear();
@@ -441,6 +444,8 @@ public class QuerydslBasicTest {
 
         boolean loaded = emf.getPersistenceUnitUtil().isLoaded(findMember.getTeam()); // 초기화가 되었는가?
         assertThat(loaded).as("페치 조인 미적용").isFalse();
+
+        assertThat(findMember.getTeam().getName()).isEqualTo("teamA"); // 여기서 팀 select 가 한 번 더 나감
     }
 
     /**
@@ -448,7 +453,11 @@ public class QuerydslBasicTest {
      */
     @Test
     @Transactional
+    @ExpectQueries(select = 1, exact = true) // 팀까지 한 번에 조회, 지연 로딩 없음
     public void fetchJoinYes() {
+        em.flush();
+        em.clear();
+
         JPAQueryFactory queryFactory = new JPAQueryFactory(em);
         QTeam team = QTeam.team;
         QMember member = QMember.member;
@@ -461,6 +470,8 @@ public class QuerydslBasicTest {
 
         boolean loaded = emf.getPersistenceUnitUtil().isLoaded(findMember.getTeam());
         assertThat(loaded).as("페치 조인 적용").isTrue();
+
+        assertThat(findMember.getTeam().getName()).isEqualTo("teamA");
     }
 
 
@@ -787,6 +798,50 @@ public class QuerydslBasicTest {
         }
     }
 
+    @Test
+    @Transactional
+    public void findDtoBYLambdaBean() {
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        QMember member = QMember.member;
+        QMember memberSub = new QMember("memberSub");
+
+        // Projections.bean / fields 와 같은 규칙(프로퍼티 이름 매칭)이지만 setter 를 리플렉션 없이 호출
+        List<UserDTO> result = queryFactory
+                .select(LambdaBeanProjection.bean(UserDTO.class,
+                        member.username.as("name"),
+                        ExpressionUtils.as(JPAExpressions
+                                .select(memberSub.age.max())
+                                .from(memberSub), "userAge")))
+                .from(member)
+                .fetch();
+
+        assertThat(result).hasSize(7);
+        assertThat(result).extracting("userAge").containsOnly(100);
+        assertThat(result).extracting("name").contains("member1", "member6", null);
+
+        List<MemberDTO> members = queryFactory
+                .select(LambdaBeanProjection.bean(MemberDTO.class, member.username, member.age))
+                .from(member)
+                .where(member.username.eq("member1"))
+                .fetch();
+
+        assertThat(members).containsExactly(new MemberDTO("member1", 10));
+    }
+
+    @Test
+    public void lambdaBeanEqualsAndHashCode() {
+        QMember member = QMember.member;
+
+        LambdaBeanProjection<MemberDTO> projection = LambdaBeanProjection.bean(MemberDTO.class, member.username, member.age);
+        LambdaBeanProjection<MemberDTO> same = LambdaBeanProjection.bean(MemberDTO.class, member.username, member.age);
+        LambdaBeanProjection<MemberDTO> other = LambdaBeanProjection.bean(MemberDTO.class, member.username);
+
+        // 같은 타입/인자면 equals 와 hashCode 가 같음 (쿼리 메타데이터를 키로 쓰는 캐시 등)
+        assertThat(projection).isEqualTo(same).hasSameHashCodeAs(same);
+        assertThat(projection).isNotEqualTo(other);
+    }
+
     @Test
     @Transactional
     public void findDtoBYUserDTOConstructor() {
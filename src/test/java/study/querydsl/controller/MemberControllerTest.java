@@ -0,0 +1,74 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EntityManager em;
+
+    @BeforeEach
+    public void before() {
+        for (int i = 1; i <= 3; i++) {
+            em.persist(new Member("member" + i, i * 10));
+        }
+        em.flush();
+    }
+
+    @Test
+    @DisplayName("v5 키셋 페이징: nextCursor 로 다음 페이지 조회")
+    public void keysetPaging() throws Exception {
+        JsonNode first = getJson("/v5/members?size=2");
+        assertThat(first.get("content")).hasSize(2);
+        assertThat(first.get("content").get(0).get("username").asText()).isEqualTo("member1");
+
+        JsonNode second = getJson("/v5/members?size=2&cursor=" + first.get("nextCursor").asText());
+        assertThat(second.get("content")).hasSize(1);
+        assertThat(second.get("content").get(0).get("username").asText()).isEqualTo("member3");
+        assertThat(second.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("v5 키셋 페이징: size 범위를 벗어나거나 커서가 잘못되면 400")
+    public void keysetPagingBadRequest() throws Exception {
+        mockMvc.perform(get("/v5/members").param("size", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v5/members").param("size", "2001")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v5/members").param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v5/members").param("cursor", "not-a-cursor!")).andExpect(status().isBadRequest());
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
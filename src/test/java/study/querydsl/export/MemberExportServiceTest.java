@@ -0,0 +1,94 @@
+package study.querydsl.export;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "querydsl.export.map-chunk-size=64") // 매핑 구간을 여러 번 넘기도록 작게
+class MemberExportServiceTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            Team teamA = new Team("teamA");
+            em.persist(teamA);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member, \"2\"", 20, teamA));
+            em.persist(new Member("member3", 30));
+        });
+    }
+
+    @Test
+    @DisplayName("member left join team 을 CSV 로 내보내기")
+    public void exportCsv(@TempDir Path dir) throws IOException {
+        Path target = dir.resolve("members.csv");
+
+        ExportReport report = memberExportService.exportCsv(target);
+
+        assertThat(report.getRows()).isEqualTo(3);
+        assertThat(Files.size(target)).isEqualTo(report.getBytes());
+        assertThat(Files.readAllLines(target))
+                .hasSize(4)
+                .first().isEqualTo("member_id,username,age,team_id,team_name");
+        assertThat(Files.readAllLines(target).get(2)).contains("\"member, \"\"2\"\"\",20,");
+        assertThat(Files.readAllLines(target).get(3)).endsWith(",member3,30,,");
+    }
+
+    @Test
+    @DisplayName("fetchSize, 매핑 크기가 1 미만이면 생성 시점에 거절")
+    public void rejectNonPositiveSizes() {
+        assertThatThrownBy(() -> new MemberExportService(em.getEntityManagerFactory(), 0, 64))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new MemberExportService(em.getEntityManagerFactory(), 1000, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("기존 파일은 다 쓴 뒤에 교체되고, 임시 파일은 남지 않음")
+    public void replaceExisting(@TempDir Path dir) throws IOException {
+        Path target = dir.resolve("members.csv");
+        Files.writeString(target, "old content that is longer than nothing at all\n".repeat(10));
+
+        ExportReport report = memberExportService.exportCsv(target);
+
+        assertThat(Files.size(target)).isEqualTo(report.getBytes());
+        assertThat(Files.readAllLines(target)).hasSize(4);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(target);
+        }
+    }
+
+    @Test
+    @DisplayName("실패하면 target 은 그대로, 중간까지 쓴 임시 파일은 삭제")
+    public void failureLeavesNoPartialFile(@TempDir Path dir) throws IOException {
+        Path target = dir.resolve("members.csv");
+        Files.createDirectory(target); // 비어 있지 않은 디렉터리라 다 쓴 뒤 교체(move)에서 실패
+        Files.writeString(target.resolve("keep.txt"), "keep");
+
+        assertThatThrownBy(() -> memberExportService.exportCsv(target))
+                .isInstanceOf(UncheckedIOException.class);
+
+        assertThat(Files.readString(target.resolve("keep.txt"))).isEqualTo("keep");
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(target);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package study.querydsl.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementTrackerTest {
+
+    SqlStatementTracker tracker = new SqlStatementTracker(2);
+
+    @Test
+    @DisplayName("begin ~ end 사이의 SQL 을 레포지토리 메서드별로 집계")
+    public void countPerMethod() {
+        tracker.record("select 1"); // begin 전에는 집계하지 않음
+
+        tracker.begin();
+        tracker.enterMethod("MemberJpaRepository.findAll()");
+        tracker.record("select m from member m");
+        tracker.exitMethod();
+        for (int i = 0; i < 3; i++) {
+            tracker.record("select t from team t where t.team_id=?"); // 지연로딩 N+1
+        }
+        SqlStatementStats stats = tracker.end();
+
+        assertThat(stats.getTotal()).isEqualTo(4);
+        assertThat(stats.getMaxRepeat()).isEqualTo(3);
+        assertThat(stats.getCount("select")).isEqualTo(4);
+        assertThat(stats.getCountByMethod())
+                .containsEntry("MemberJpaRepository.findAll()", 1)
+                .containsEntry("(none)", 3);
+        assertThat(tracker.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("중첩 집계: 안쪽 end() 는 바깥 집계를 지우지 않고, 바깥은 안쪽 SQL 도 셈")
+    public void nestedScopes() {
+        tracker.begin(); // 예: @ExpectQueries
+        tracker.record("select m from member m");
+
+        tracker.begin(); // 예: 테스트 안에서 직접 집계
+        tracker.record("update member set team_id=?");
+        SqlStatementStats inner = tracker.end();
+
+        tracker.record("select t from team t");
+        SqlStatementStats outer = tracker.end();
+
+        assertThat(inner.getTotal()).isEqualTo(1);
+        assertThat(inner.getCount("update")).isEqualTo(1);
+        assertThat(outer.getTotal()).isEqualTo(3);
+        assertThat(outer.getCount("select")).isEqualTo(2);
+        assertThat(outer.getCount("update")).isEqualTo(1);
+        assertThat(tracker.current()).isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberAsyncPagingTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            for (int i = 0; i < 5; i++) {
+                em.persist(new Member("member" + i, i));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("컨텐츠와 카운트를 동시에 실행")
+    public void total() {
+        Page<Member> page = memberTestRepository.applyPaginationAsync(new MemberSearchCondition(),
+                PageRequest.of(0, 2, Sort.by("username")));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting("username").containsExactly("member0", "member1");
+    }
+
+    @Test
+    @DisplayName("카운트는 트랜잭션 밖에서 실행: 커밋 안 된 row 는 total 에 없음, 카운트가 필요 없으면 컨텐츠로 total 계산")
+    public void countRunsOutsideTransaction() {
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("member5", 5));
+            em.flush(); // 현재 트랜잭션의 컨텐츠 쿼리에는 보임
+
+            Page<Member> counted = memberTestRepository.applyPaginationAsync(new MemberSearchCondition(),
+                    PageRequest.of(0, 2));
+            assertThat(counted.getTotalElements()).isEqualTo(5); // 카운트 쿼리는 커밋된 5개만 봄
+
+            Page<Member> skipped = memberTestRepository.applyPaginationAsync(new MemberSearchCondition(),
+                    PageRequest.of(0, 10));
+            assertThat(skipped.getTotalElements()).isEqualTo(6); // 첫 페이지가 다 안 찼으므로 카운트 결과를 쓰지 않음
+
+            status.setRollbackOnly();
+        });
+    }
+}
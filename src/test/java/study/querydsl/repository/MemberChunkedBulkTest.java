@@ -0,0 +1,62 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.ChunkedBulkReport;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberChunkedBulkTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            for (int i = 0; i < 25; i++) {
+                em.persist(new Member("member" + i, i));
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("나눠서 삭제: 10개씩 chunk 2번")
+    public void chunkedDelete() {
+        ChunkedBulkReport report = memberTestRepository.chunkedDeleteOlderThan(4, 10); // 5 ~ 24 -> 20명
+
+        assertThat(report.getRows()).isEqualTo(20);
+        assertThat(report.getChunks()).isEqualTo(2);
+        assertThat(count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("나눠서 수정: 수정된 row 를 다시 처리하지 않음")
+    public void chunkedUpdate() {
+        ChunkedBulkReport report = memberTestRepository.chunkedRenameYoungerThan(15, "비회원", 4); // 0 ~ 14 -> 15명
+
+        assertThat(report.getRows()).isEqualTo(15);
+        assertThat(report.getChunks()).isEqualTo(4);
+        assertThat(em.createQuery("select count(m) from Member m where m.username = '비회원'", Long.class)
+                .getSingleResult()).isEqualTo(15);
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션 안에서는 호출 불가 (chunk 트랜잭션이 바깥 트랜잭션의 락을 기다리게 됨)")
+    public void rejectInsideReadWriteTransaction() {
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> memberTestRepository.chunkedDeleteOlderThan(4, 10)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(count()).isEqualTo(25);
+    }
+
+    private long count() {
+        return em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+    }
+}
@@ -0,0 +1,71 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MemberConcurrentLookupTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    List<String> usernames = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            for (int i = 0; i < 1100; i++) {
+                em.persist(new Member("member" + i, i));
+                usernames.add("member" + i);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("조각(512 + 512 + 76)을 동시에 조회해도 결과는 순차 조회와 같고, 조각 순서대로 합쳐짐")
+    public void concurrentChunks() {
+        List<Member> sequential = memberJpaRepository.findByUsernames(usernames, false);
+        List<Member> concurrent = memberJpaRepository.findByUsernames(usernames, true);
+
+        assertThat(concurrent).hasSize(1100);
+        assertThat(concurrent).extracting("username")
+                .containsExactlyInAnyOrderElementsOf(usernames);
+        assertThat(concurrent).extracting("id")
+                .containsExactlyInAnyOrderElementsOf(sequential.stream().map(Member::getId).collect(Collectors.toList()));
+        assertThat(concurrent.subList(0, 512)).extracting("username")
+                .containsExactlyInAnyOrderElementsOf(usernames.subList(0, 512));
+        assertThat(concurrent.subList(1024, 1100)).extracting("username")
+                .containsExactlyInAnyOrderElementsOf(usernames.subList(1024, 1100));
+    }
+
+    @Test
+    @DisplayName("동시 조회는 현재 트랜잭션 밖에서 실행: 커밋 안 된 회원은 보이지 않고, 결과는 준영속")
+    public void concurrentRunsOutsideTransaction() {
+        List<String> withUncommitted = new ArrayList<>(usernames);
+        withUncommitted.add("uncommitted");
+
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("uncommitted", 1));
+            em.flush();
+
+            assertThat(memberJpaRepository.findByUsernames(withUncommitted, false)).hasSize(1101);
+
+            List<Member> concurrent = memberJpaRepository.findByUsernames(withUncommitted, true);
+            assertThat(concurrent).hasSize(1100);
+            assertThat(concurrent).noneMatch(em::contains);
+
+            status.setRollbackOnly();
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package study.querydsl.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,12 +11,21 @@ import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.MemberTeamDto;
 import study.querydsl.entity.Team;
+import study.querydsl.monitoring.QueryPlanCacheMonitor;
+import study.querydsl.monitoring.QueryPlanCacheStats;
+import study.querydsl.repository.support.InListPadding;
+import study.querydsl.support.ExpectQueries;
 
 import javax.persistence.EntityManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -27,6 +37,9 @@ class MemberJpaRepositoryTest {
     @Autowired
     MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    QueryPlanCacheMonitor queryPlanCacheMonitor;
+
     @Test
     @DisplayName("jpql 문법으로 질의")
     public void basicTest() {
@@ -61,6 +74,133 @@ class MemberJpaRepositoryTest {
         assertThat(result2).isEqualTo(result1);
     }
 
+    @Test
+    @DisplayName("batchLoader: findById 요청을 모아서 member.id.in 으로 한꺼번에 조회")
+    @ExpectQueries(select = 2) // id 201 개(없는 id 1개 포함) -> 128 + 73(128 로 패딩)
+    public void batchLoaderTest() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Member member = new Member("member" + i, i);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+
+        MemberBatchLoader loader = memberJpaRepository.batchLoader();
+        List<CompletableFuture<Optional<Member>>> futures = ids.stream()
+                .map(loader::load)
+                .collect(Collectors.toList());
+        CompletableFuture<Optional<Member>> missing = loader.load(-1L);
+        loader.load(ids.get(0)); // 중복 요청은 하나로
+
+        assertThat(loader.pendingCount()).isEqualTo(201);
+        assertThat(futures.get(0)).isNotDone();
+
+        loader.dispatch();
+
+        assertThat(futures).allMatch(future -> future.join().isPresent());
+        assertThat(futures.get(199).join().get().getUsername()).isEqualTo("member199");
+        assertThat(missing.join()).isEmpty();
+        assertThat(loader.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findByUsernames: 512 개씩 나눠서 조회하고 결과를 합침")
+    @ExpectQueries(select = 2) // 600 개 -> 512 + 88(128 로 패딩)
+    public void findByUsernamesTest() {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            em.persist(new Member("member" + i, i));
+            usernames.add("member" + i);
+        }
+        em.flush();
+        em.clear();
+
+        List<Member> result = memberJpaRepository.findByUsernames(usernames);
+
+        assertThat(result).hasSize(600);
+        assertThat(result).extracting("username").doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("findByUsernames: 목록 길이가 달라도 같은 bucket 이면 쿼리 플랜 재사용")
+    public void findByUsernamesPlanCacheTest() {
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i));
+        }
+        em.flush();
+        em.clear();
+        memberJpaRepository.findByUsernames(List.of("member0")); // bucket 8 플랜 준비
+        QueryPlanCacheStats before = queryPlanCacheMonitor.stats();
+
+        assertThat(memberJpaRepository.findByUsernames(List.of("member0", "member1", "member2"))).hasSize(3);
+        assertThat(memberJpaRepository.findByUsernames(List.of("member0", "member1", "member2", "member3", "member4"))).hasSize(5);
+        assertThat(memberJpaRepository.findByUsernames(List.of("member0", "member1", "member2", "member3", "member4", "member5", "member6"))).hasSize(7);
+
+        QueryPlanCacheStats after = queryPlanCacheMonitor.stats();
+        assertThat(after.isEnabled()).isTrue();
+        assertThat(after.getMissCount()).isEqualTo(before.getMissCount());
+        assertThat(after.getHitCount()).isGreaterThan(before.getHitCount());
+    }
+
+    @Test
+    @DisplayName("IN 절 패딩: 2의 거듭제곱 크기로 맞추고 마지막 값으로 채움")
+    public void inListPaddingTest() {
+        assertThat(InListPadding.nextPowerOfTwo(1)).isEqualTo(1);
+        assertThat(InListPadding.nextPowerOfTwo(3)).isEqualTo(4);
+        assertThat(InListPadding.nextPowerOfTwo(64)).isEqualTo(64);
+        assertThat(InListPadding.nextPowerOfTwo(65)).isEqualTo(128);
+        assertThat(InListPadding.padToPowerOfTwo(List.of(1L, 2L, 3L))).containsExactly(1L, 2L, 3L, 3L);
+        assertThat(InListPadding.padToBucket(List.of(1, 2, 3), 2, 4, 8)).containsExactly(1, 2, 3, 3);
+        assertThat(InListPadding.padToBucket(List.of(1, 2, 3), 2)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    @DisplayName("streamSearch: 한 row 씩 넘기고, 바깥 트랜잭션의 flush 안 된 변경을 버리지 않음")
+    public void streamSearchTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+        em.flush();
+
+        member1.changeTeam(teamB); // 아직 flush 안 된 변경
+        List<MemberTeamDto> streamed = new ArrayList<>();
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        long count = memberJpaRepository.streamSearch(condition, 1, streamed::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(streamed).extracting("username").containsExactlyInAnyOrder("member2", "member3"); // auto flush 후 조회
+        assertThat(em.contains(member1)).isTrue();
+        em.flush();
+        em.clear();
+        assertThat(em.find(Member.class, member1.getId()).getTeam().getName()).isEqualTo("teamB");
+        assertThatThrownBy(() -> memberJpaRepository.streamSearch(condition, 0, streamed::add))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회는 스냅샷을 만들지 않음")
+    public void readOnlyQueryTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.flush();
+        em.clear();
+
+        List<Member> result = memberJpaRepository.searchMember(new MemberSearchCondition());
+
+        assertThat(result).extracting("username").containsExactly("member1");
+        assertThat(em.unwrap(Session.class).isReadOnly(result.get(0))).isTrue();
+    }
+
     @DisplayName("조건검색 및 멤버 및 팀을 함께 조회하여 성능최적화한 메서드를 테스트")
     @Nested
     public class SearchTest {
@@ -159,6 +299,32 @@ class MemberJpaRepositoryTest {
                     .extracting("teamName")
                     .containsExactly("teamB");
         }
+
+        @Test
+        @DisplayName("JPQL 템플릿 search 와 Querydsl searchByQuerydsl 은 16가지 조건 조합 모두 같은 결과")
+        public void searchTemplateTest() {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+
+            for (int shape = 0; shape < 16; shape++) {
+                MemberSearchCondition condition = new MemberSearchCondition();
+                condition.setUsername((shape & 1) != 0 ? "member3" : null);
+                condition.setTeamName((shape & 2) != 0 ? "teamB" : null);
+                condition.setAgeLoe((shape & 4) != 0 ? 35 : null);
+                condition.setAgeGoe((shape & 8) != 0 ? 15 : null);
+
+                assertThat(memberJpaRepository.search(condition))
+                        .containsExactlyInAnyOrderElementsOf(memberJpaRepository.searchByQuerydsl(condition));
+            }
+        }
     }
 
 
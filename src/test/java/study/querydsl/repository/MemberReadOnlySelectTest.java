@@ -0,0 +1,112 @@
+package study.querydsl.repository;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.monitoring.SqlStatementStats;
+import study.querydsl.monitoring.SqlStatementTracker;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * basicSelect() (selectReadOnly): 읽기 전용 힌트와 flush 여부 확인
+ */
+@SpringBootTest
+class MemberReadOnlySelectTest extends CommittedDataTestSupport {
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @Autowired
+    SqlStatementTracker sqlStatementTracker;
+
+    Long memberId;
+    Long teamBId;
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            Member member = new Member("member1", 10, teamA);
+            em.persist(member);
+            em.persist(new Member("member2", 20, teamA));
+            em.flush();
+            memberId = member.getId();
+            teamBId = teamB.getId();
+        });
+    }
+
+    @Test
+    @DisplayName("조회한 엔티티는 읽기 전용: 수정해도 flush 때 update 가 나가지 않음")
+    public void readOnlyHint() {
+        tx.executeWithoutResult(status -> {
+            List<Member> members = memberTestRepository.basicSelect();
+
+            Session session = em.unwrap(Session.class);
+            assertThat(members).hasSize(2).allMatch(session::isReadOnly);
+
+            Member member = members.stream().filter(m -> m.getId().equals(memberId)).findFirst().orElseThrow();
+            member.changeTeam(em.find(Team.class, teamBId));
+
+            sqlStatementTracker.begin();
+            em.flush();
+            SqlStatementStats stats = sqlStatementTracker.end();
+            assertThat(stats.getCount("update")).isZero();
+        });
+
+        assertThat(teamNameOf(memberId)).isEqualTo("teamA");
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션에서 호출하면 조회 전에 auto flush 하지 않음")
+    public void noFlushBeforeQuery() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        readOnlyTx.executeWithoutResult(status -> {
+            // 변경 감지 대상인 엔티티를 수정해 둔다. auto flush 라면 member 조회 전에 update 가 나감
+            Member member = em.find(Member.class, memberId);
+            em.unwrap(Session.class).setReadOnly(member, false);
+            member.changeTeam(em.find(Team.class, teamBId));
+            long flushCount = statistics.getFlushCount();
+
+            sqlStatementTracker.begin();
+            List<Member> members = memberTestRepository.basicSelect();
+            SqlStatementStats stats = sqlStatementTracker.end();
+
+            assertThat(members).hasSize(2);
+            assertThat(stats.getCount("update")).isZero();
+            assertThat(stats.getCount("select")).isEqualTo(1);
+            assertThat(statistics.getFlushCount()).isEqualTo(flushCount);
+        });
+
+        assertThat(teamNameOf(memberId)).isEqualTo("teamA");
+    }
+
+    private String teamNameOf(Long id) {
+        return tx.execute(status -> em.find(Member.class, id).getTeam().getName());
+    }
+}
@@ -6,12 +6,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberCursor;
+import study.querydsl.dto.MemberKeysetPage;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.MemberTeamDto;
 import study.querydsl.entity.QMember;
 import study.querydsl.entity.Team;
+import study.querydsl.monitoring.SqlStatementStats;
+import study.querydsl.monitoring.SqlStatementTracker;
+import study.querydsl.support.ExpectQueries;
 
 import javax.persistence.EntityManager;
 import java.util.List;
@@ -28,6 +34,9 @@ public class MemberRepositoryTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    SqlStatementTracker sqlStatementTracker;
+
     @Test
     @DisplayName("query dsl interface 사용하여 질의")
     public void basicTest() {
@@ -47,6 +56,7 @@ public class MemberRepositoryTest {
 
     @Test
     @DisplayName("search 메서드 사용하여 팀명이 teamB이고 나이가 35~40살 사이인 멤버의 팀명과 이름 조회")
+    @ExpectQueries(select = 1)
     public void searchTest() {
         Team teamA = new Team("teamA");
         Team teamB = new Team("teamB");
@@ -81,6 +91,7 @@ public class MemberRepositoryTest {
 
     @Test
     @DisplayName("페이징: fetchResults")
+    @ExpectQueries(select = 2) // content + count
     public void pagingTest() {
         Team teamA = new Team("teamA");
         Team teamB = new Team("teamB");
@@ -132,9 +143,167 @@ public class MemberRepositoryTest {
         System.out.println(result.getTotalElements());
 
         assertThat(result.getSize()).isEqualTo(3);
+        assertThat(result.getTotalElements()).isEqualTo(4);
         assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    @DisplayName("페이징: 카운트 쿼리는 teamName 조건이 있을 때만 team 을 조인")
+    public void pagingCountWithTeamNameTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+        em.persist(new Member("member5", 50));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        em.flush();
+
+        sqlStatementTracker.begin();
+        Page<MemberTeamDto> result = memberRepository.searchPageComplexQueryCountWhenItNeeded(condition, pageRequest);
+        String countWithTeamName = countStatement(sqlStatementTracker.end());
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(countWithTeamName).containsIgnoringCase(" join team"); // 쓰기 트랜잭션 안이라 team.name 으로 비교
+
+        sqlStatementTracker.begin();
+        Page<MemberTeamDto> all = memberRepository.searchPageComplex(new MemberSearchCondition(), pageRequest);
+        String countWithoutTeamName = countStatement(sqlStatementTracker.end());
+        assertThat(all.getTotalElements()).isEqualTo(5);
+        assertThat(countWithoutTeamName).doesNotContainIgnoringCase("join"); // 컨텐츠 쿼리의 left join 을 빼고 member 만 집계
+    }
+
+    private static String countStatement(SqlStatementStats stats) {
+        return stats.getStatements().stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select count"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("count query not executed: " + stats.getStatements()));
+    }
+
+    @Test
+    @DisplayName("페이징: count(*) over() 로 컨텐츠와 전체 개수를 쿼리 한 번에")
+    @ExpectQueries(select = 1)
+    public void windowCountPagingTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(1, 3);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageWithWindowCount(condition, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent()).extracting("username").containsExactly("member4");
+    }
+
+    @Test
+    @DisplayName("페이징: 지연 조인 - id 만 먼저 페이징하고 해당 row 조회")
+    public void deferredJoinPagingTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(1, 2);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageDeferredJoin(condition, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamB", "teamB");
+    }
+
+    @Test
+    @DisplayName("슬라이스: 카운트 쿼리 없이 다음 페이지 여부만")
+    @ExpectQueries(select = 1)
+    public void sliceTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 3));
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("페이징: 키셋(커서) 방식으로 나이순 조회")
+    public void keysetPagingTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 40, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 20, teamB);
+        Member member4 = new Member("member4", 10, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        MemberKeysetPage first = memberRepository.searchByKeyset(condition, MemberCursor.first(true), 3);
+        assertThat(first.getContent()).extracting("username").containsExactly("member4", "member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+
+        MemberKeysetPage second = memberRepository.searchByKeyset(condition, MemberCursor.decode(first.getNextCursor()), 3);
+        assertThat(second.getContent()).extracting("username").containsExactly("member1");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
     @Test
     public void querydslPredicateExecutorTest() {
         Team teamA = new Team("teamA");
@@ -0,0 +1,143 @@
+package study.querydsl.repository;
+
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.repository.MemberSearchQueryTemplates.AGE_GOE;
+import static study.querydsl.repository.MemberSearchQueryTemplates.AGE_LOE;
+import static study.querydsl.repository.MemberSearchQueryTemplates.TEAM_IDS;
+import static study.querydsl.repository.MemberSearchQueryTemplates.TEAM_NAME;
+import static study.querydsl.repository.MemberSearchQueryTemplates.USERNAME;
+
+/**
+ * 검색 조건 조합(shape)별 SQL 을 H2 EXPLAIN 으로 확인: shape 마다 member 에서 타야 하는 인덱스가 정해져 있다.
+ * - username 조건이 있으면 idx_member_username (회원마다 다른 값이라 가장 선택적)
+ * - 아니고 팀 조건(팀명/팀 id)이 있으면 idx_member_team_age (나이 조건도 같은 인덱스의 두 번째 컬럼으로 처리)
+ * - 나이 조건만 있으면 idx_member_age
+ * - team: 팀명 조건 -> idx_team_name 또는 member.team_id 로 PK 조인
+ * 통계가 없으면 H2 는 모든 컬럼의 선택도를 같게 보고 인덱스 비용이 같아지므로, 데이터를 커밋하고 ANALYZE 한 뒤 확인한다.
+ */
+@SpringBootTest
+class MemberSearchIndexTest extends CommittedDataTestSupport {
+
+    private static final int TEAM_COUNT = 10; // 팀이 2개뿐이면 team_id 로 절반을 읽게 되어 H2 가 전체 스캔을 고름
+
+    // EXPLAIN 의 "PUBLIC"."MEMBER" "MEMBER0_" /* PUBLIC.IDX_MEMBER_USERNAME: ... */ 에서 인덱스(또는 MEMBER.tableScan) 추출
+    private static final String ACCESS = "\"?PUBLIC\"?\\.\"?%s\"?\\s+\"?\\w+\"?\\s+/\\*\\s*PUBLIC\\.([\\w.]+)";
+    private static final Pattern MEMBER_ACCESS = Pattern.compile(String.format(ACCESS, "MEMBER"), Pattern.CASE_INSENSITIVE);
+    private static final Pattern TEAM_ACCESS = Pattern.compile(String.format(ACCESS, "TEAM"), Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    MemberSearchQueryTemplates templates;
+
+    Team team0;
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < TEAM_COUNT; i++) {
+                Team team = new Team("team" + i);
+                em.persist(team);
+                teams.add(team);
+            }
+            for (int i = 0; i < 100; i++) {
+                em.persist(new Member("member" + i, i, teams.get(i % TEAM_COUNT)));
+            }
+            team0 = teams.get(0);
+        });
+        tx.executeWithoutResult(status -> em.createNativeQuery("ANALYZE").executeUpdate()); // 컬럼 선택도 갱신
+    }
+
+    @Test
+    @DisplayName("조건이 있는 모든 조합이 shape 별로 정해진 인덱스 사용 (팀명/팀 id 조건 포함)")
+    public void everySearchShapeUsesIndex() {
+        SessionFactoryImplementor sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+
+        for (int shape = 1; shape < TEAM_IDS << 1; shape++) {
+            if (!MemberSearchQueryTemplates.isValid(shape)) {
+                continue;
+            }
+            HQLQueryPlan plan = sessionFactory.getQueryPlanCache()
+                    .getHQLQueryPlan(templates.jpqlOf(shape), false, Collections.emptyMap());
+            String sql = bindLiterals(plan.getSqlStrings()[0], shape);
+
+            String explain = String.valueOf(em.createNativeQuery("EXPLAIN " + sql).getSingleResult());
+
+            assertThat(accessOf(MEMBER_ACCESS, explain))
+                    .as("member, shape %d: %s", shape, explain)
+                    .isEqualTo(expectedMemberIndex(shape));
+            if ((shape & TEAM_NAME) != 0) {
+                assertThat(accessOf(TEAM_ACCESS, explain))
+                        .as("team, shape %d: %s", shape, explain)
+                        .matches("(?i)IDX_TEAM_NAME|PRIMARY_KEY\\w*");
+            }
+        }
+    }
+
+    private static String expectedMemberIndex(int shape) {
+        if ((shape & USERNAME) != 0) {
+            return "IDX_MEMBER_USERNAME";
+        }
+        if ((shape & (TEAM_NAME | TEAM_IDS)) != 0) {
+            return "IDX_MEMBER_TEAM_AGE";
+        }
+        return "IDX_MEMBER_AGE";
+    }
+
+    private static String accessOf(Pattern access, String explain) {
+        Matcher matcher = access.matcher(explain);
+        assertThat(matcher.find()).as("table access not found: %s", explain).isTrue();
+        return matcher.group(1).toUpperCase();
+    }
+
+    // SQL 의 ? 를 조건 순서(username, teamName, teamIds, ageLoe, ageGoe)대로 값으로 치환
+    private String bindLiterals(String sql, int shape) {
+        List<String> literals = new ArrayList<>();
+        if ((shape & USERNAME) != 0) {
+            literals.add("'member1'");
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            literals.add("'team0'");
+        }
+        if ((shape & TEAM_IDS) != 0) {
+            literals.add(String.valueOf(team0.getId()));
+        }
+        if ((shape & AGE_LOE) != 0) {
+            literals.add("30");
+        }
+        if ((shape & AGE_GOE) != 0) {
+            literals.add("20");
+        }
+
+        StringBuilder bound = new StringBuilder();
+        int next = 0;
+        for (char c : sql.toCharArray()) {
+            if (c != '?') {
+                bound.append(c);
+                continue;
+            }
+            String literal = literals.get(next++);
+            // 컬렉션 파라미터(in ?)가 괄호 없이 번역된 경우
+            boolean inWithoutParen = bound.toString().trim().toLowerCase().endsWith(" in");
+            bound.append(inWithoutParen ? "(" + literal + ")" : literal);
+        }
+        assertThat(next).isEqualTo(literals.size());
+        return bound.toString();
+    }
+}
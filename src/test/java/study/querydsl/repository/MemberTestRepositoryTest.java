@@ -0,0 +1,133 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.ExpectQueries;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberTestRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    Member member1;
+    Member member2;
+    Member member3;
+    Member member4;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        member1 = new Member("member1", 10, teamA);
+        member2 = new Member("member2", 20, teamA);
+        member3 = new Member("member3", 30, teamB);
+        member4 = new Member("member4", 40, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+    }
+
+    @Test
+    @DisplayName("벌크 수정: 변경된 회원만 영속성 컨텍스트에서 분리, 나머지는 유지")
+    public void bulkUpdate() {
+        long count = memberTestRepository.bulkRenameYoungerThan(28, "비회원");
+
+        assertThat(count).isEqualTo(2);
+        assertThat(em.contains(member1)).isFalse();
+        assertThat(em.contains(member2)).isFalse();
+        assertThat(em.contains(member3)).isTrue();
+        assertThat(em.contains(member4)).isTrue();
+
+        // 분리된 회원은 다시 조회하면 DB 의 값
+        assertThat(em.find(Member.class, member1.getId()).getUsername()).isEqualTo("비회원");
+    }
+
+    @Test
+    @DisplayName("벌크 삭제: 삭제된 회원만 영속성 컨텍스트에서 분리")
+    public void bulkDelete() {
+        long count = memberTestRepository.bulkDeleteOlderThan(18);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(em.contains(member1)).isTrue();
+        assertThat(em.contains(member2)).isFalse();
+        assertThat(em.find(Member.class, member4.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("벌크 수정: 관리 중인 엔티티가 많으면 대상 조회를 나눠서 실행 (IN 절 128 개씩)")
+    @ExpectQueries(select = 3, update = 1) // 관리 중인 회원 304명 -> 128 + 128 + 48(64 로 패딩)
+    public void bulkUpdateManyManagedEntities() {
+        List<Member> young = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Member member = new Member("young" + i, 5);
+            em.persist(member);
+            young.add(member);
+        }
+
+        long count = memberTestRepository.bulkRenameYoungerThan(8, "비회원");
+
+        assertThat(count).isEqualTo(300);
+        assertThat(young).noneMatch(em::contains);
+        assertThat(em.contains(member1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("applySlice: size + 1 개를 조회해서 다음 페이지 판단, 남은 row 가 size 와 같으면 hasNext = false")
+    @ExpectQueries(select = 3)
+    public void applySlice() {
+        Slice<Member> first = memberTestRepository.applySlice(new MemberSearchCondition(),
+                PageRequest.of(0, 3, Sort.by("age")));
+        assertThat(first.getContent()).containsExactly(member1, member2, member3);
+        assertThat(first.hasNext()).isTrue();
+
+        // 4개를 2개씩: 두 번째 페이지는 딱 맞게 끝남
+        Slice<Member> last = memberTestRepository.applySlice(new MemberSearchCondition(),
+                PageRequest.of(1, 2, Sort.by("age")));
+        assertThat(last.getContent()).containsExactly(member3, member4);
+        assertThat(last.hasNext()).isFalse();
+
+        Slice<Member> empty = memberTestRepository.applySlice(new MemberSearchCondition(),
+                PageRequest.of(2, 2, Sort.by("age")));
+        assertThat(empty.getContent()).isEmpty();
+        assertThat(empty.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("applySlice: Unpaged 면 전체 조회, hasNext = false")
+    public void applySliceUnpaged() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        Slice<Member> slice = memberTestRepository.applySlice(condition, Pageable.unpaged());
+
+        assertThat(slice.getContent()).containsExactlyInAnyOrder(member2, member3, member4);
+        assertThat(slice.hasNext()).isFalse();
+    }
+}
@@ -0,0 +1,118 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.MemberTeamDto;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.cache.TeamIdCache;
+import study.querydsl.support.CommittedDataTestSupport;
+import study.querydsl.support.ExpectQueries;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TeamIdCacheTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberTestRepository memberTestRepository;
+
+    @Autowired
+    MemberSearchQueryTemplates memberSearchQueryTemplates;
+
+    @Autowired
+    TeamIdCache teamIdCache;
+
+    @BeforeEach
+    public void before() {
+        commit(() -> {
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40));
+        });
+    }
+
+    @Test
+    @DisplayName("팀 이름을 id 로 바꿔도 결과는 같음, 없는 팀 이름은 빈 결과")
+    public void searchByCachedTeamId() {
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition("teamA"), PageRequest.of(0, 10));
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting("teamName").containsOnly("teamA");
+
+        Page<MemberTeamDto> deferred = memberRepository.searchPageDeferredJoin(condition("teamB"), PageRequest.of(0, 10));
+        assertThat(deferred.getContent()).extracting("username").containsExactly("member3");
+
+        Page<Member> members = memberTestRepository.applyPagination2(condition("teamA"), PageRequest.of(0, 10));
+        assertThat(members.getContent()).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+
+        assertThat(memberRepository.searchPageComplex(condition("teamX"), PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(teamIdCache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("템플릿 경로: 없는 팀 이름은 회원 질의 없이 빈 결과")
+    @ExpectQueries(select = 3, exact = true) // 팀 id 조회 2번 + teamB 회원 조회 1번
+    public void templateSearchByUnknownTeam() {
+        List<MemberTeamDto> unknown = memberSearchQueryTemplates.search(condition("teamX"));
+        assertThat(unknown).isEmpty();
+
+        List<MemberTeamDto> known = memberSearchQueryTemplates.search(condition("teamB"));
+        assertThat(known).extracting("username").containsExactly("member3");
+        assertThat(teamIdCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("팀이 추가되면 캐시를 비우고 새 팀도 조회됨")
+    public void invalidateOnTeamWrite() {
+        memberRepository.searchPageComplex(condition("teamA"), PageRequest.of(0, 10));
+        assertThat(teamIdCache.size()).isEqualTo(1);
+
+        tx.executeWithoutResult(status -> { // 같은 이름의 팀 추가 (팀 이름은 유일하지 않음)
+            Team another = new Team("teamA");
+            em.persist(another);
+            em.persist(new Member("member5", 50, another));
+        });
+        assertThat(teamIdCache.size()).isZero();
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition("teamA"), PageRequest.of(0, 10));
+        assertThat(result.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("팀 조건은 요청 스레드에서 한 번만 결정: 쓰기 트랜잭션 안이면 비동기 카운트도 team.name 으로 비교 (팀 id 캐시 사용 안 함)")
+    public void asyncCountUsesSameTeamPredicate() {
+        tx.executeWithoutResult(status -> {
+            Page<Member> page = memberTestRepository.applyPaginationAsync(condition("teamA"), PageRequest.of(0, 1));
+
+            assertThat(page.getTotalElements()).isEqualTo(2);
+            assertThat(page.getContent()).hasSize(1);
+        });
+        assertThat(teamIdCache.size()).isZero();
+
+        Page<Member> page = memberTestRepository.applyPaginationAsync(condition("teamA"), PageRequest.of(0, 1));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(teamIdCache.size()).isEqualTo(1);
+    }
+
+    private MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+}
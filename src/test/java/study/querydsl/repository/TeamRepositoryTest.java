@@ -0,0 +1,70 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.TeamRosterDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.support.ExpectQueries;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("팀 페이징 + 회원 목록: 팀 쿼리 1번, 회원 쿼리 1번")
+    @ExpectQueries(select = 2, exact = true)
+    public void findRosters() {
+        Slice<TeamRosterDto> result = teamRepository.findRosters(PageRequest.of(0, 2));
+
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamA", "teamB");
+        assertThat(result.getContent().get(0).getMembers()).extracting("username").containsExactly("member1", "member2");
+        assertThat(result.getContent().get(1).getMembers()).extracting("username").containsExactly("member3", "member4");
+    }
+
+    @Test
+    @DisplayName("회원이 없는 팀은 빈 목록")
+    @ExpectQueries(select = 2, exact = true)
+    public void findRostersWithEmptyTeam() {
+        Slice<TeamRosterDto> result = teamRepository.findRosters(PageRequest.of(1, 2));
+
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.getContent()).extracting("teamName").containsExactly("teamC");
+        assertThat(result.getContent().get(0).getMembers()).isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package study.querydsl.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.repository.cache.CacheGeneration.Stamped;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheGenerationTest {
+
+    Cache<String, Stamped<String>> cache = Caffeine.newBuilder().build();
+    AtomicInteger clears = new AtomicInteger();
+    CacheGeneration generation = new CacheGeneration(clears::incrementAndGet); // 캐시는 비우지 않음
+
+    @Test
+    @DisplayName("무효화 뒤에 남아 있는 예전 세대 값은 꺼낼 때 버림 (세대 확인과 put 사이에 무효화가 끼어든 상황)")
+    public void rejectStaleOnRead() {
+        generation.putIfCurrent(cache, "key", generation.current(), "before");
+        assertThat(generation.getIfCurrent(cache, "key")).isEqualTo("before");
+
+        generation.invalidateAll();
+
+        assertThat(generation.getIfCurrent(cache, "key")).isNull();
+        assertThat(cache.asMap()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("조회 도중 무효화되면 저장하지 않음")
+    public void skipPutAfterInvalidation() {
+        long before = generation.current();
+        generation.invalidateAll();
+        generation.putIfCurrent(cache, "key", before, "loaded");
+
+        assertThat(cache.asMap()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 여러 번 무효화해도 동기화는 한 번만 등록, 끝나면 한 번 더 비움")
+    public void invalidateOncePerTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                generation.invalidateAll();
+            }
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+            assertThat(clears.get()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(clears.get()).isEqualTo(2);
+            assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
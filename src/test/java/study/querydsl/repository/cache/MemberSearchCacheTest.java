@@ -0,0 +1,100 @@
+package study.querydsl.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.MemberTeamDto;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchCacheTest {
+
+    MemberSearchCache cache = new MemberSearchCache(100, Duration.ofMinutes(1));
+
+    @Test
+    @DisplayName("빈 문자열 조건과 null 조건은 같은 캐시 키")
+    public void normalizedKey() {
+        AtomicInteger loads = new AtomicInteger();
+
+        MemberSearchCondition blank = new MemberSearchCondition();
+        blank.setUsername(" ");
+        blank.setTeamName("");
+        MemberSearchCondition empty = new MemberSearchCondition();
+
+        cache.get(blank, () -> load(loads));
+        List<MemberTeamDto> result = cache.get(empty, () -> load(loads));
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(result).extracting("username").containsExactly("member1");
+        assertThat(cache.stats().getHitCount()).isEqualTo(1);
+        assertThat(cache.stats().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("무효화 후에는 다시 질의, 질의 도중 무효화된 결과는 캐시에 올리지 않음")
+    public void invalidate() {
+        AtomicInteger loads = new AtomicInteger();
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        cache.get(condition, () -> {
+            cache.invalidateAll(); // 질의 중 auto flush 로 무효화된 상황
+            return load(loads);
+        });
+        cache.get(condition, () -> load(loads));
+        cache.invalidateAll();
+        cache.get(condition, () -> load(loads));
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.stats().getInvalidationCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("캐시된 결과를 수정해도 다음 조회 결과는 그대로")
+    public void copyOnRead() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<MemberTeamDto> first = cache.get(condition, () -> load(loads));
+        first.get(0).setUsername("changed");
+        List<MemberTeamDto> second = cache.get(condition, () -> load(loads));
+        second.get(0).setUsername("changed again");
+        second.add(new MemberTeamDto(2L, "member2", 20, 1L, "teamA"));
+
+        assertThat(cache.get(condition, () -> load(loads))).extracting("username").containsExactly("member1");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 여러 번 무효화해도 동기화는 한 번만 등록")
+    public void invalidateOncePerTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 1000; i++) {
+                cache.invalidateAll();
+            }
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+            assertThat(cache.stats().getInvalidationCount()).isEqualTo(1);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(cache.stats().getInvalidationCount()).isEqualTo(2);
+            assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private List<MemberTeamDto> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        List<MemberTeamDto> result = new ArrayList<>();
+        result.add(new MemberTeamDto(1L, "member1", 10, 1L, "teamA"));
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package study.querydsl.repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("실행 중인 같은 키의 호출은 한 번의 실행 결과를 공유")
+    public void coalesce() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            // 첫 호출이 실행 중인 동안 나머지가 모두 합류할 때까지 대기
+            while (singleFlight.stats().getSharedCount() < callers - 1) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.stats().getExecutionCount()).isEqualTo(1);
+        assertThat(singleFlight.stats().getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("실행이 끝나면 결과를 보관하지 않음, 예외도 그대로 전달")
+    public void noCaching() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("key", loads::incrementAndGet);
+        singleFlight.execute("key", loads::incrementAndGet);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.stats().getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("copier 가 있으면 호출자마다 다른 복사본을 받음 (한 호출자가 바꿔도 다른 호출자 결과는 그대로)")
+    public void copyPerCaller() throws Exception {
+        SingleFlight<String, List<String>> copying = new SingleFlight<>(ArrayList::new);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<String>> first = executor.submit(() -> copying.execute("key", () -> {
+                await(release);
+                return new ArrayList<>(List.of("member1"));
+            }));
+            while (copying.stats().getInFlight() == 0) {
+                Thread.sleep(10);
+            }
+            Future<List<String>> second = executor.submit(() -> copying.execute("key", () -> List.of("unused")));
+            while (copying.stats().getSharedCount() == 0) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            List<String> firstResult = first.get(5, TimeUnit.SECONDS);
+            firstResult.set(0, "changed");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isNotSameAs(firstResult).containsExactly("member1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
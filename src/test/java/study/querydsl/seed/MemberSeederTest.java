@@ -0,0 +1,102 @@
+package study.querydsl.seed;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.support.CommittedDataTestSupport;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MemberSeederTest extends CommittedDataTestSupport {
+
+    @Autowired
+    MemberSeeder memberSeeder;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    @DisplayName("chunk 마다 flush/clear 후 커밋: 25명을 10명씩 나누면 회원 트랜잭션 3번")
+    public void seedInChunks() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        long transactions = statistics.getSuccessfulTransactionCount();
+        long flushes = statistics.getFlushCount();
+        long inserts = statistics.getEntityInsertCount();
+
+        SeedReport report = memberSeeder.seed(properties(3, 25, 0, 10));
+
+        assertThat(report.getTeams()).isEqualTo(3);
+        assertThat(report.getMembers()).isEqualTo(25);
+        assertThat(report.getElapsedMillis()).isNotNegative();
+        assertThat(countOf("Team")).isEqualTo(3);
+        assertThat(countOf("Member")).isEqualTo(25);
+
+        // 팀 1번 + chunk 3번, chunk 의 flush 뒤에는 clear 됐으므로 커밋 때 다시 flush 하지 않음
+        assertThat(statistics.getSuccessfulTransactionCount() - transactions).isEqualTo(4);
+        assertThat(statistics.getFlushCount() - flushes).isEqualTo(4);
+        assertThat(statistics.getEntityInsertCount() - inserts).isEqualTo(28);
+    }
+
+    @Test
+    @DisplayName("teamSkew 가 0 이면 팀마다 같은 수, 0 보다 크면 앞쪽 팀에 몰림")
+    public void teamSkew() {
+        memberSeeder.seed(properties(3, 300, 0, 100));
+        assertThat(membersPerTeam()).containsExactly(100L, 100L, 100L);
+
+        deleteCommittedData();
+
+        memberSeeder.seed(properties(3, 300, 2, 100));
+        List<Long> skewed = membersPerTeam();
+        assertThat(skewed.stream().mapToLong(Long::longValue).sum()).isEqualTo(300);
+        assertThat(skewed.get(0)).isGreaterThan(skewed.get(1));
+        assertThat(skewed.get(1)).isGreaterThan(skewed.get(2));
+    }
+
+    @Test
+    @DisplayName("chunkSize, progressInterval 이 0 이하이거나 건수가 음수면 아무것도 넣기 전에 실패")
+    public void rejectInvalidProperties() {
+        assertThatThrownBy(() -> memberSeeder.seed(properties(3, 25, 0, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        SeedProperties noProgress = properties(3, 25, 0, 10);
+        noProgress.setProgressInterval(0);
+        assertThatThrownBy(() -> memberSeeder.seed(noProgress))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> memberSeeder.seed(properties(3, -1, 0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> memberSeeder.seed(properties(-1, 25, 0, 10)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(countOf("Team")).isZero();
+    }
+
+    private static SeedProperties properties(int teams, long members, double teamSkew, int chunkSize) {
+        SeedProperties properties = new SeedProperties();
+        properties.setTeams(teams);
+        properties.setMembers(members);
+        properties.setTeamSkew(teamSkew);
+        properties.setChunkSize(chunkSize);
+        return properties;
+    }
+
+    private long countOf(String entity) {
+        return tx.execute(status -> em.createQuery("select count(e) from " + entity + " e", Long.class)
+                .getSingleResult());
+    }
+
+    // teamA, teamB, teamC 순서
+    private List<Long> membersPerTeam() {
+        return tx.execute(status -> em.createQuery(
+                        "select count(m) from Member m join m.team t group by t.name order by t.name", Long.class)
+                .getResultList());
+    }
+}
@@ -0,0 +1,33 @@
+package study.querydsl.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 테스트 트랜잭션(롤백) 대신 데이터를 실제로 커밋해야 하는 테스트용
+ * 별도 커넥션/스레드나 트랜잭션 경계를 직접 정하는 코드는 롤백될 테스트 트랜잭션의 데이터를 볼 수 없다.
+ * commit() 으로 데이터를 넣으면, 테스트가 끝난 뒤 Member/Team 을 모두 지운다.
+ */
+public abstract class CommittedDataTestSupport {
+
+    @Autowired
+    protected EntityManager em;
+
+    @Autowired
+    protected TransactionTemplate tx;
+
+    protected void commit(Runnable setup) {
+        tx.executeWithoutResult(status -> setup.run());
+    }
+
+    @AfterEach
+    public void deleteCommittedData() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member").executeUpdate();
+            em.createQuery("delete from Team").executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package study.querydsl.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 메서드가 실행하는 SQL 수 상한(budget). 넘으면 테스트 실패.
+ * 테스트 메서드 본문만 센다. (@BeforeEach 의 데이터 준비는 제외)
+ * -1 이면 검사하지 않음.
+ *
+ * 예: @ExpectQueries(select = 1) -> select 가 2번 이상 나가면 (N+1 등) 실패
+ * exact = true 면 상한이 아니라 정확히 그 수여야 한다. (지연 로딩처럼 쿼리가 "나가야 하는" 경우 확인용)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface ExpectQueries {
+
+    int select() default -1;
+
+    int insert() default -1;
+
+    int update() default -1;
+
+    int delete() default -1;
+
+    // 전체 SQL 수 (시퀀스 호출 포함)
+    int total() default -1;
+
+    // JPQL 쿼리가 읽어온 row 수 합계 (하이버네이트 통계)
+    long rows() default -1;
+
+    // true 면 -1 이 아닌 항목은 모두 정확히 일치해야 함
+    boolean exact() default false;
+}
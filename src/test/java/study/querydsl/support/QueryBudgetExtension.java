@@ -0,0 +1,92 @@
+package study.querydsl.support;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.querydsl.monitoring.SqlStatementStats;
+import study.querydsl.monitoring.SqlStatementTracker;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @ExpectQueries 처리: 테스트 메서드 실행 전후로 SQL 수(SqlStatementTracker)와
+ * 하이버네이트 통계(읽은 row 수)를 집계해서 budget 을 넘었는지 (exact 면 같은지) 검사한다.
+ * (application.yml 에 hibernate.generate_statistics: true 필요)
+ * SQL 수는 중첩 가능한 집계 범위를 하나 열어서 세고, row 수는 전역 통계를 지우지 않고 전후 차이로 계산한다.
+ * (테스트 안에서 직접 begin/end 하는 집계나 다른 통계 사용처와 섞이지 않도록)
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+    private static final String ROWS_BEFORE = "rowsBefore";
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(ROWS_BEFORE, rows(statistics(context)));
+        tracker(context).begin();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementStats stats = tracker(context).end();
+        long rows = rows(statistics(context)) - context.getStore(NAMESPACE).remove(ROWS_BEFORE, Long.class);
+        ExpectQueries budget = context.getRequiredTestMethod().getAnnotation(ExpectQueries.class);
+        if (budget == null) {
+            return;
+        }
+        String method = context.getRequiredTestMethod().getName();
+        boolean exact = budget.exact();
+        assertBudget(method, "select", stats.getCount("select"), budget.select(), exact);
+        assertBudget(method, "insert", stats.getCount("insert"), budget.insert(), exact);
+        assertBudget(method, "update", stats.getCount("update"), budget.update(), exact);
+        assertBudget(method, "delete", stats.getCount("delete"), budget.delete(), exact);
+        assertBudget(method, "total", stats.getTotal(), budget.total(), exact);
+        assertBudget(method, "rows", rows, budget.rows(), exact);
+    }
+
+    private static void assertBudget(String method, String type, long actual, long expected, boolean exact) {
+        if (expected < 0) {
+            return;
+        }
+        if (exact) {
+            assertThat(actual)
+                    .as("%s: %s statements/rows expected", method, type)
+                    .isEqualTo(expected);
+            return;
+        }
+        assertThat(actual)
+                .as("%s: %s statements/rows budget", method, type)
+                .isLessThanOrEqualTo(expected);
+    }
+
+    // 지금까지 JPQL 쿼리가 읽어온 row 수 누적 합계
+    private static long rows(Statistics statistics) {
+        List<String> queries = new ArrayList<>(Arrays.asList(statistics.getQueries()));
+        return queries.stream()
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+    }
+
+    private static Statistics statistics(ExtensionContext context) {
+        return applicationContext(context).getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    private static SqlStatementTracker tracker(ExtensionContext context) {
+        return applicationContext(context).getBean(SqlStatementTracker.class);
+    }
+
+    private static ApplicationContext applicationContext(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context);
+    }
+}